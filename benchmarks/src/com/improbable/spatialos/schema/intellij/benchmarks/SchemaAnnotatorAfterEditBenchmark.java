@@ -0,0 +1,25 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.EdtTestUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+// The annotation pass that follows an edit. Before each pass a space is typed at the end of the file and deleted
+// again, which changes the PSI and so drops the cached type resolution, as typing anywhere in the project does. The
+// pass then resolves every type name again.
+public class SchemaAnnotatorAfterEditBenchmark extends SchemaAnnotatorBenchmark {
+    @Setup(Level.Invocation)
+    public void edit() throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(fixture.getProject(), () -> {
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(fixture.getProject());
+            Document document = documentManager.getDocument(file);
+            document.insertString(document.getTextLength(), " ");
+            documentManager.commitDocument(document);
+            document.deleteString(document.getTextLength() - 1, document.getTextLength());
+            documentManager.commitDocument(document);
+        }));
+    }
+}
@@ -0,0 +1,41 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaAnnotator;
+import com.intellij.codeInsight.daemon.impl.AnnotationHolderImpl;
+import com.intellij.lang.annotation.AnnotationSession;
+import com.intellij.lang.annotation.Annotator;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+// Runs the annotator over every element of the file, as a highlighting pass does, with SchemaAnnotator and with
+// SchemaTextAnnotator, the annotator it replaced. Nothing changes between passes, so type resolution is always cached.
+public class SchemaAnnotatorBenchmark extends SchemaCorpusBenchmark {
+    @Param({"SchemaAnnotator", "SchemaTextAnnotator"})
+    public String annotatorClass;
+
+    private Annotator annotator;
+
+    @Setup
+    public void createAnnotator() {
+        annotator = annotatorClass.equals("SchemaAnnotator") ? new SchemaAnnotator() : new SchemaTextAnnotator();
+    }
+
+    @Benchmark
+    public int annotate() {
+        return ReadAction.compute(() -> {
+            AnnotationHolderImpl holder = new AnnotationHolderImpl(new AnnotationSession(file));
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    annotator.annotate(element, holder);
+                    super.visitElement(element);
+                }
+            });
+            return holder.size();
+        });
+    }
+}
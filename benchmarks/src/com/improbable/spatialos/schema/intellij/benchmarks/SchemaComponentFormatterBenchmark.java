@@ -0,0 +1,42 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.testFramework.EdtTestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+// Reformats a file holding one component with many fields. The time should grow linearly with the number of fields,
+// so ten times the fields should take about ten times as long.
+public class SchemaComponentFormatterBenchmark extends SchemaFixtureBenchmark {
+    @Param({"500", "5000"})
+    public int fields;
+
+    // The indentation is removed, so that the formatter has to change every line of the component.
+    @Override
+    protected String createText() {
+        return new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateComponent(fields)
+            .replace("\n  ", "\n");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetText() throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(fixture.getProject(), () -> {
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(fixture.getProject());
+            Document document = documentManager.getDocument(file);
+            document.setText(text);
+            documentManager.commitDocument(document);
+        }));
+    }
+
+    @Benchmark
+    public void reformat() throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(fixture.getProject(),
+            () -> CodeStyleManager.getInstance(fixture.getProject()).reformat(file)));
+    }
+}
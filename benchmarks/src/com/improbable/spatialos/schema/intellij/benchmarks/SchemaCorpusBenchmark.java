@@ -0,0 +1,15 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import org.openjdk.jmh.annotations.Param;
+
+// A fixture holding a generated file of each size from 1 KB to 10 MB.
+public abstract class SchemaCorpusBenchmark extends SchemaFixtureBenchmark {
+    @Param({"1024", "102400", "1048576", "10485760"})
+    public int size;
+
+    @Override
+    protected String createText() {
+        return new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateFile(size);
+    }
+}
@@ -0,0 +1,48 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.impl.LightTempDirTestFixtureImpl;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+// Starts a headless IDE with a light project holding one file, for the benchmarks that need the platform. The fixture
+// is set up and torn down on the EDT, as in a light test case.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class SchemaFixtureBenchmark {
+    protected String text;
+    protected CodeInsightTestFixture fixture;
+    protected PsiFile file;
+
+    @Setup
+    public void setUpFixture() throws Throwable {
+        text = createText();
+        IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        fixture = factory.createCodeInsightFixture(
+            factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR).getFixture(),
+            new LightTempDirTestFixtureImpl(true));
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            file = fixture.addFileToProject("Benchmark.schema", text);
+        });
+    }
+
+    protected abstract String createText();
+
+    @TearDown
+    public void tearDownFixture() throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+    }
+}
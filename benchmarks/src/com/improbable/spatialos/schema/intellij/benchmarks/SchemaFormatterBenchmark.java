@@ -0,0 +1,26 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.actions.SchemaFormattingModelBuilder;
+import com.intellij.application.options.CodeStyle;
+import com.intellij.formatting.Block;
+import com.intellij.openapi.application.ReadAction;
+import org.openjdk.jmh.annotations.Benchmark;
+
+// Builds the formatting model of the file and every SchemaBlock in it, as reformatting the whole file does.
+public class SchemaFormatterBenchmark extends SchemaCorpusBenchmark {
+    private final SchemaFormattingModelBuilder builder = new SchemaFormattingModelBuilder();
+
+    @Benchmark
+    public int buildBlocks() {
+        return ReadAction.compute(() -> countBlocks(
+            builder.createModel(file, CodeStyle.getSettings(file)).getRootBlock()));
+    }
+
+    private static int countBlocks(Block block) {
+        int count = 1;
+        for (Block child : block.getSubBlocks()) {
+            count += countBlocks(child);
+        }
+        return count;
+    }
+}
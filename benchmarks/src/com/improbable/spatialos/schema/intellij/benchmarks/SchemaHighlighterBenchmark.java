@@ -0,0 +1,89 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.improbable.spatialos.schema.intellij.parser.SchemaSyntaxHighlighter;
+import com.intellij.lexer.DelegateLexer;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.editor.colors.EditorColorsManager;
+import com.intellij.openapi.editor.ex.util.LexerEditorHighlighter;
+import com.intellij.openapi.editor.impl.DocumentImpl;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Types and deletes single characters in a large document with an unterminated block comment from its middle to its
+// end, as an editor does, and reports how many characters the editor highlighter relexes for them. Only the lines
+// around each edit should be relexed, however much of the file the comment takes up.
+public class SchemaHighlighterBenchmark extends SchemaCorpusBenchmark {
+    private static final int EDITS = 1024;
+
+    // The characters relexed over the iteration, and the number of edits. The first divided by the second is the
+    // relexed range per edit.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Relexed {
+        public long characters;
+        public long edits;
+    }
+
+    private DocumentImpl document;
+    private CountingLexer lexer;
+    private int[] offsets;
+    private int nextEdit;
+
+    @Override
+    protected String createText() {
+        String text = new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateFile(size);
+        int middle = text.indexOf('\n', text.length() / 2) + 1;
+        return text.substring(0, middle) + "/*\n" + text.substring(middle);
+    }
+
+    @Setup
+    public void setUpHighlighter() {
+        // A document for use outside the EDT, so that it can be changed without a write action.
+        document = new DocumentImpl(text, true);
+        LexerEditorHighlighter highlighter = new LexerEditorHighlighter(new SchemaSyntaxHighlighter() {
+            @Override
+            public @NotNull Lexer getHighlightingLexer() {
+                lexer = new CountingLexer(super.getHighlightingLexer());
+                return lexer;
+            }
+        }, EditorColorsManager.getInstance().getGlobalScheme());
+        highlighter.setText(document.getImmutableCharSequence());
+        document.addDocumentListener(highlighter);
+        Random random = new Random(1);
+        offsets = new int[EDITS];
+        for (int i = 0; i < EDITS; ++i) {
+            offsets[i] = random.nextInt(text.length());
+        }
+    }
+
+    @Benchmark
+    public void typeAndDelete(Relexed relexed) {
+        int offset = offsets[nextEdit++ % EDITS];
+        lexer.characters = 0;
+        document.insertString(offset, "a");
+        document.deleteString(offset, offset + 1);
+        relexed.characters += lexer.characters;
+        relexed.edits += 2;
+    }
+
+    private static class CountingLexer extends DelegateLexer {
+        private long characters;
+
+        private CountingLexer(@NotNull Lexer delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void advance() {
+            characters += getTokenEnd() - getTokenStart();
+            super.advance();
+        }
+    }
+}
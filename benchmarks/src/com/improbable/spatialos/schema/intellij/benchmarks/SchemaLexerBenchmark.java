@@ -0,0 +1,51 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.intellij.lexer.Lexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Tokenizes a generated file with the parser and the highlighting lexers. The lexer doesn't need a running IDE.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchemaLexerBenchmark {
+    @Param({"1024", "102400", "1048576", "10485760"})
+    public int size;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateFile(size);
+    }
+
+    @Benchmark
+    public int lex() {
+        return countTokens(new SchemaLexer());
+    }
+
+    @Benchmark
+    public int lexForHighlighting() {
+        return countTokens(new SchemaLexer(true));
+    }
+
+    private int countTokens(Lexer lexer) {
+        int count = 0;
+        lexer.start(text);
+        while (lexer.getTokenType() != null) {
+            ++count;
+            lexer.advance();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,40 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParserDefinition;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiFileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class SchemaParserBenchmark extends SchemaCorpusBenchmark {
+    private final ParserDefinition parserDefinition = new SchemaParserDefinition();
+
+    // Builds the tree with a PsiBuilder that isn't attached to any file. Definition bodies are collapsed into lazy
+    // nodes at this level, so this is the cost of opening a file before anything looks inside a definition.
+    @Benchmark
+    public ASTNode buildTopLevelTree() {
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(parserDefinition, new SchemaLexer(), text);
+        return SchemaParser.SCHEMA_PARSER.parse(SchemaParser.SCHEMA_FILE, builder);
+    }
+
+    // Parses the whole file, including every definition body.
+    @Benchmark
+    public int parseFile() {
+        return ReadAction.compute(() -> countNodes(PsiFileFactory.getInstance(fixture.getProject())
+            .createFileFromText("Parsed.schema", SchemaLanguage.SCHEMA_LANGUAGE, text).getNode()));
+    }
+
+    private static int countNodes(ASTNode node) {
+        int count = 1;
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            count += countNodes(child);
+        }
+        return count;
+    }
+}
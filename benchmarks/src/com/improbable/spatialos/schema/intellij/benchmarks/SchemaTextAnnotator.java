@@ -0,0 +1,94 @@
+package com.improbable.spatialos.schema.intellij.benchmarks;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaAnnotator;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.Annotator;
+import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiReference;
+import org.jetbrains.annotations.NotNull;
+
+// SchemaAnnotator as it was before it dispatched on element types, which compares the text of every element with each
+// punctuation character and looks names up in lists by their text. It is only kept to compare SchemaAnnotator with.
+public class SchemaTextAnnotator implements Annotator {
+    @Override
+    public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
+        if (element.getNode().getElementType() == SchemaParser.ANNOTATION_CONSTRUCTOR) {
+            // Highlight each part of the qualified name, leaving the '.' separators uncoloured.
+            String text = element.getText();
+            int start = 0;
+            for (int i = 0; i < text.length(); ++i) {
+                if (text.charAt(i) == '.') {
+                    highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, start, i);
+                    start = i + 1;
+                }
+            }
+            highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, start, text.length());
+        }
+        if (element.getNode().getElementType() == SchemaParser.ENUM_REFERENCE) {
+            String text = element.getText();
+            int index = text.indexOf('.');
+            highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, 0, index);
+            highlight(holder, element, DefaultLanguageHighlighterColors.NUMBER, index + 1, text.length());
+        }
+        if (element.getNode().getElementType() == SchemaParser.KEYWORD) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
+        }
+        if (element.getNode().getElementType() == SchemaParser.OPTION_VALUE &&
+            SchemaAnnotator.OPTION_VALUES.contains(element.getText())) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.NUMBER);
+        }
+        if (element.getNode().getElementType() == SchemaParser.TYPE_NAME &&
+            SchemaAnnotator.BUILT_IN_GENERIC_TYPES.contains(element.getText())) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
+        }
+        if (element.getNode().getElementType() == SchemaParser.TYPE_PARAMETER_NAME ||
+             element.getNode().getElementType() == SchemaParser.TYPE_NAME) {
+            if (SchemaAnnotator.BUILT_IN_TYPES.contains(element.getText())) {
+                highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
+            } else {
+                highlight(holder, element, DefaultLanguageHighlighterColors.METADATA);
+                if (!SchemaAnnotator.BUILT_IN_GENERIC_TYPES.contains(element.getText())) {
+                    checkReference(holder, element);
+                }
+            }
+        }
+        if(element.getNode().getElementType() == SchemaParser.COMMAND_NAME) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.INSTANCE_METHOD);
+        }
+        if(element.getNode().getText().equals("{") || element.getNode().getText().equals("}") ||
+           element.getNode().getText().equals("[") || element.getNode().getText().equals("]")) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.BRACKETS);
+        }
+        if(element.getNode().getText().equals("(") || element.getNode().getText().equals(")")) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.PARENTHESES);
+        }
+        if(element.getNode().getText().equals(",")) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.COMMA);
+        }
+        if(element.getNode().getText().equals(";")) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.SEMICOLON);
+        }
+    }
+
+    private void checkReference(@NotNull AnnotationHolder holder, @NotNull PsiElement element) {
+        PsiReference reference = element.getReference();
+        if (reference != null && reference.resolve() == null) {
+            holder.createErrorAnnotation(element, String.format("Cannot resolve type '%s'.", element.getText()));
+        }
+    }
+
+    private void highlight(@NotNull AnnotationHolder holder, @NotNull PsiElement element,
+                           @NotNull TextAttributesKey attributes) {
+        holder.createInfoAnnotation(element, null).setTextAttributes(attributes);
+    }
+
+    private void highlight(@NotNull AnnotationHolder holder, @NotNull PsiElement element,
+                           @NotNull TextAttributesKey attributes, int start, int end) {
+        holder.createInfoAnnotation(new TextRange(element.getTextOffset() + start, element.getTextOffset() + end), null)
+            .setTextAttributes(attributes);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,277 @@
+package com.improbable.spatialos.schema.intellij.corpus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Generates synthetic schema for benchmarks and stress tests. A project is a set of packages, each with a number of
+// files declaring enums, types and components with fields of built-in, user, list, map and option types, commands,
+// events and nested annotations. Files import earlier files, in the same or other packages, and refer to their types.
+// The output only depends on the settings, so every run with the same settings produces the same schema.
+public class SchemaCorpusGenerator {
+    public static final String COMMON_PACKAGE = "improbable.corpus.common";
+    public static final String COMMON_PATH = "improbable/corpus/common.schema";
+
+    private static final String[] BUILT_IN_TYPES = {
+        "bool", "uint32", "int32", "sint64", "float", "double", "string", "bytes", "EntityId", "Entity"
+    };
+    private static final String[] KEY_TYPES = {"uint32", "int64", "string", "EntityId"};
+
+    public static class Settings {
+        public long seed = 1;
+        public int packages = 4;
+        public int filesPerPackage = 8;
+        public int enumsPerFile = 1;
+        public int typesPerFile = 3;
+        public int componentsPerFile = 2;
+        public int fieldsPerDefinition = 6;
+        public int commandsPerComponent = 1;
+        public int eventsPerComponent = 1;
+        // How deeply annotation constructors are nested in the annotation before each definition. 0 for none.
+        public int annotationDepth = 2;
+        // Out of 100, how many fields are a list, map or option rather than a plain type.
+        public int genericFieldPercentage = 30;
+        public int importsPerFile = 2;
+    }
+
+    private final Settings settings;
+    private final Random random;
+    private int nextComponentId = 1000;
+
+    public SchemaCorpusGenerator(Settings settings) {
+        this.settings = settings;
+        random = new Random(settings.seed);
+    }
+
+    // The files of a project, by their import path, in an order where every file only imports files before it.
+    public Map<String, String> generateProject() {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(COMMON_PATH, "package " + COMMON_PACKAGE + ";\n\n" + commonDefinitions());
+        List<String> paths = new ArrayList<>();
+        Map<String, FileBuilder> builders = new LinkedHashMap<>();
+        int fileCount = 0;
+        for (int file = 0; file < settings.filesPerPackage; ++file) {
+            for (int pkg = 0; pkg < settings.packages; ++pkg) {
+                String packageName = "improbable.corpus.package" + pkg;
+                String path = packageName.replace('.', '/') + "/file" + file + ".schema";
+                FileBuilder builder = new FileBuilder(packageName);
+                builder.imports.add(COMMON_PATH);
+                // Imports are picked from the files generated so far, so there are no import cycles.
+                for (int i = 0; i < settings.importsPerFile && !paths.isEmpty(); ++i) {
+                    String imported = paths.get(random.nextInt(paths.size()));
+                    if (!builder.imports.contains(imported)) {
+                        builder.imports.add(imported);
+                        builder.types.addAll(builders.get(imported).declaredTypes);
+                        builder.recordTypes.addAll(builders.get(imported).declaredRecordTypes);
+                    }
+                }
+                builder.appendDefinitions("F" + fileCount++);
+                files.put(path, builder.build());
+                paths.add(path);
+                builders.put(path, builder);
+            }
+        }
+        return files;
+    }
+
+    // A single file of at least the given number of characters, which doesn't import anything.
+    public String generateFile(int size) {
+        FileBuilder builder = new FileBuilder("improbable.corpus");
+        builder.text.append(commonDefinitions());
+        for (int group = 0; builder.text.length() < size; ++group) {
+            builder.appendDefinitions("G" + group);
+        }
+        return builder.build();
+    }
+
+    // A file with a single component with the given number of fields, and a few types for them to use. Working on one
+    // definition should cost the same per field however large the definition is, which this is for checking.
+    public String generateComponent(int fields) {
+        FileBuilder builder = new FileBuilder("improbable.corpus");
+        builder.text.append(commonDefinitions());
+        builder.appendDefinitions("G");
+        builder.appendComponent("Large", fields);
+        return builder.build();
+    }
+
+    public void writeProject(Path directory) throws IOException {
+        for (Map.Entry<String, String> file : generateProject().entrySet()) {
+            Path path = directory.resolve(file.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, file.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // The types used by the generated annotations, and the types used by every component.
+    private static String commonDefinitions() {
+        return "type Empty {}\n\n" +
+               "enum Unit {\n  METERS = 0;\n  FEET = 1;\n  SECONDS = 2;\n}\n\n" +
+               "type Range {\n  double min = 1;\n  double max = 2;\n}\n\n" +
+               "type Tag {\n  string name = 1;\n  list<Tag> children = 2;\n}\n\n" +
+               "type Settings {\n  string name = 1;\n  list<int32> limits = 2;\n  map<string, Unit> units = 3;\n" +
+               "  Range range = 4;\n  Tag tag = 5;\n}\n\n";
+    }
+
+    private class FileBuilder {
+        private final String packageName;
+        private final List<String> imports = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        // The enums and types this file can refer to, qualified unless they are declared in this file. Events and
+        // commands can only use the types.
+        private final List<String> types = new ArrayList<>();
+        private final List<String> recordTypes = new ArrayList<>();
+        private final List<String> declaredTypes = new ArrayList<>();
+        private final List<String> declaredRecordTypes = new ArrayList<>();
+
+        private FileBuilder(String packageName) {
+            this.packageName = packageName;
+        }
+
+        private String build() {
+            StringBuilder file = new StringBuilder("package ").append(packageName).append(";\n\n");
+            for (String path : imports) {
+                file.append("import \"").append(path).append("\";\n");
+            }
+            if (!imports.isEmpty()) {
+                file.append('\n');
+            }
+            return file.append(text).toString();
+        }
+
+        private void appendDefinitions(String suffix) {
+            for (int i = 0; i < settings.enumsPerFile; ++i) {
+                appendEnum("Kind" + suffix + "_" + i);
+            }
+            for (int i = 0; i < settings.typesPerFile; ++i) {
+                appendType("Data" + suffix + "_" + i);
+            }
+            for (int i = 0; i < settings.componentsPerFile; ++i) {
+                appendComponent("Component" + suffix + "_" + i, settings.fieldsPerDefinition);
+            }
+        }
+
+        private void declare(String name, boolean record) {
+            types.add(name);
+            declaredTypes.add(packageName + "." + name);
+            if (record) {
+                recordTypes.add(name);
+                declaredRecordTypes.add(packageName + "." + name);
+            }
+        }
+
+        private void appendEnum(String name) {
+            appendAnnotation();
+            text.append("enum ").append(name).append(" {\n");
+            for (int i = 0; i < Math.max(1, settings.fieldsPerDefinition); ++i) {
+                text.append("  VALUE_").append(i).append(" = ").append(i).append(";\n");
+            }
+            text.append("}\n\n");
+            declare(name, false);
+        }
+
+        private void appendType(String name) {
+            appendAnnotation();
+            text.append("type ").append(name).append(" {\n");
+            appendFields(settings.fieldsPerDefinition);
+            text.append("}\n\n");
+            declare(name, true);
+        }
+
+        private void appendComponent(String name, int fields) {
+            appendAnnotation();
+            text.append("component ").append(name).append(" {\n");
+            text.append("  id = ").append(nextComponentId++).append(";\n");
+            appendFields(fields);
+            String empty = commonPrefix() + "Empty";
+            for (int i = 0; i < settings.eventsPerComponent; ++i) {
+                text.append("  event ").append(pickRecordType(empty)).append(" changed_").append(i).append(";\n");
+            }
+            for (int i = 0; i < settings.commandsPerComponent; ++i) {
+                text.append("  command ").append(pickRecordType(empty)).append(" update_").append(i).append('(')
+                    .append(pickRecordType(empty)).append(");\n");
+            }
+            text.append("}\n\n");
+        }
+
+        private void appendFields(int fields) {
+            for (int i = 0; i < fields; ++i) {
+                text.append("  ").append(pickFieldType()).append(" value_").append(i).append(" = ").append(i + 1)
+                    .append(";\n");
+            }
+        }
+
+        private String pickFieldType() {
+            if (random.nextInt(100) >= settings.genericFieldPercentage) {
+                return pickType();
+            }
+            switch (random.nextInt(3)) {
+                case 0: return "list<" + pickType() + ">";
+                case 1: return "map<" + KEY_TYPES[random.nextInt(KEY_TYPES.length)] + ", " + pickType() + ">";
+                default: return "option<" + pickType() + ">";
+            }
+        }
+
+        private String pickType() {
+            return types.isEmpty() || random.nextBoolean() ?
+                   BUILT_IN_TYPES[random.nextInt(BUILT_IN_TYPES.length)] : types.get(random.nextInt(types.size()));
+        }
+
+        private String pickRecordType(String fallback) {
+            return recordTypes.isEmpty() ? fallback : recordTypes.get(random.nextInt(recordTypes.size()));
+        }
+
+        private void appendAnnotation() {
+            if (settings.annotationDepth <= 0) {
+                return;
+            }
+            String common = commonPrefix();
+            if (random.nextBoolean()) {
+                text.append("[").append(common).append("Settings(name = \"").append(random.nextInt(1000))
+                    .append("\", limits = [").append(random.nextInt(10)).append(", ").append(random.nextInt(100))
+                    .append("], units = {\"distance\": ").append(common).append("Unit.METERS, \"time\": ")
+                    .append(common).append("Unit.SECONDS}, range = ").append(common).append("Range(0.5, ")
+                    .append(random.nextInt(100)).append("), tag = ");
+                appendTag(common, settings.annotationDepth - 1);
+                text.append(")]\n");
+            } else {
+                text.append('[');
+                appendTag(common, settings.annotationDepth - 1);
+                text.append("]\n");
+            }
+        }
+
+        private void appendTag(String common, int depth) {
+            text.append(common).append("Tag(\"tag").append(depth).append("\", [");
+            if (depth > 0) {
+                int children = 1 + random.nextInt(2);
+                for (int i = 0; i < children; ++i) {
+                    if (i > 0) {
+                        text.append(", ");
+                    }
+                    appendTag(common, depth - 1);
+                }
+            }
+            text.append("])");
+        }
+
+        // The prefix for names declared in the common definitions, which are in this file unless it imports them.
+        private String commonPrefix() {
+            return imports.contains(COMMON_PATH) ? COMMON_PACKAGE + "." : "";
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: SchemaCorpusGenerator <output directory>");
+            System.exit(1);
+        }
+        new SchemaCorpusGenerator(new Settings()).writeProject(Paths.get(args[0]));
+    }
+}
@@ -5,7 +5,7 @@ import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
 import com.intellij.formatting.*;
 import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.TextRange;
-import com.intellij.psi.PsiComment;
+import com.intellij.psi.TokenType;
 import com.intellij.psi.tree.IElementType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -16,8 +16,10 @@ import java.util.Collections;
 import java.util.List;
 
 public class SchemaBlock implements Block {
-    private static final List<IElementType> INDENT_BLOCKS = Arrays.asList(
+    private static final List<IElementType> DEFINITION_BLOCKS = Arrays.asList(
         SchemaParser.ENUM_DEFINITION, SchemaParser.TYPE_DEFINITION, SchemaParser.COMPONENT_DEFINITION);
+    private static final List<IElementType> INDENT_BLOCKS = Arrays.asList(
+        SchemaParser.ENUM_BODY, SchemaParser.TYPE_BODY, SchemaParser.COMPONENT_BODY);
     private static final List<IElementType> CONTINUATION_BLOCKS = Arrays.asList(
         SchemaParser.PACKAGE_DEFINITION, SchemaParser.IMPORT_DEFINITION, SchemaParser.OPTION_DEFINITION,
         SchemaParser.FIELD_DEFINITION, SchemaParser.DATA_DEFINITION, SchemaParser.EVENT_DEFINITION,
@@ -33,18 +35,35 @@ public class SchemaBlock implements Block {
 
     private final ASTNode node;
     private final Indent indent;
-    private final List<SchemaBlock> subBlocks = new ArrayList<>();
+    private List<SchemaBlock> subBlocks = null;
+    // Indexes of the first '{' and '}' sub-blocks, or -1 if there are none.
+    private int leftBraceIndex = -1;
+    private int rightBraceIndex = -1;
 
     public SchemaBlock(@NotNull ASTNode node, @NotNull Indent indent) {
         this.node = node;
         this.indent = indent;
+    }
 
-        for (ASTNode child : node.getChildren(null)) {
-            if (child.getText().trim().length() > 0) {
-                Indent childIndent = getIndentForChild(subBlocks.size(), child.getElementType());
-                subBlocks.add(new SchemaBlock(child, childIndent));
+    // Sub-blocks are only built when the formatter asks for them, so blocks it never descends into cost nothing.
+    private @NotNull List<SchemaBlock> buildSubBlocks() {
+        if (subBlocks == null) {
+            subBlocks = new ArrayList<>();
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (child.getElementType() != TokenType.WHITE_SPACE && child.getTextLength() > 0) {
+                    IElementType childElement = child.getElementType();
+                    Indent childIndent = getIndentForChild(subBlocks.size(), childElement);
+                    if (childElement == SchemaLexer.LBRACE && leftBraceIndex < 0) {
+                        leftBraceIndex = subBlocks.size();
+                    }
+                    if (childElement == SchemaLexer.RBRACE && rightBraceIndex < 0) {
+                        rightBraceIndex = subBlocks.size();
+                    }
+                    subBlocks.add(new SchemaBlock(child, childIndent));
+                }
             }
         }
+        return subBlocks;
     }
 
     @Override
@@ -54,7 +73,7 @@ public class SchemaBlock implements Block {
 
     @Override
     public @NotNull List<Block> getSubBlocks() {
-        return Collections.unmodifiableList(subBlocks);
+        return Collections.unmodifiableList(buildSubBlocks());
     }
 
     @Override
@@ -80,46 +99,52 @@ public class SchemaBlock implements Block {
         SchemaBlock left = (SchemaBlock) child1;
         SchemaBlock right = (SchemaBlock) child2;
 
+        IElementType leftElement = left.node.getElementType();
+        IElementType rightElement = right.node.getElementType();
+
         // Comments.
-        if (left.node.getPsi() instanceof PsiComment || right.node.getPsi() instanceof PsiComment) {
+        if (leftElement == SchemaLexer.COMMENT || rightElement == SchemaLexer.COMMENT) {
             return FREE_BREAKS_AND_SPACES;
         }
 
         // Braces.
-        if (left.node.getPsi().getText().equals("{") || right.node.getPsi().getText().equals("}")) {
+        if (INDENT_BLOCKS.contains(rightElement)) {
+            return ONE_SPACE;
+        }
+        if (leftElement == SchemaLexer.LBRACE || rightElement == SchemaLexer.RBRACE) {
             return ONE_BREAK;
         }
-        if (left.node.getPsi().getText().equals("}")) {
+        if (leftElement == SchemaLexer.RBRACE) {
             return FREE_BREAKS;
         }
-        if (right.node.getPsi().getText().equals("{")) {
+        if (rightElement == SchemaLexer.LBRACE) {
             return ONE_SPACE;
         }
 
         // Angle brackets.
-        if (left.node.getPsi().getText().equals("<") || right.node.getPsi().getText().equals(">")) {
+        if (leftElement == SchemaLexer.LANGLE || rightElement == SchemaLexer.RANGLE) {
             return NO_SPACE_OR_BREAK;
         }
-        if (left.node.getPsi().getText().equals(">")) {
+        if (leftElement == SchemaLexer.RANGLE) {
             return SPACE_OR_BREAK;
         }
-        if (right.node.getPsi().getText().equals("<")) {
+        if (rightElement == SchemaLexer.LANGLE) {
             return NO_SPACING;
         }
 
         // Comma and semicolon.
-        if (right.node.getPsi().getText().equals(",") || right.node.getPsi().getText().equals(";")) {
+        if (rightElement == SchemaLexer.COMMA || rightElement == SchemaLexer.SEMICOLON) {
             return NO_SPACING;
         }
-        if (left.node.getPsi().getText().equals(",")) {
+        if (leftElement == SchemaLexer.COMMA) {
             return SPACE_OR_BREAK;
         }
-        if (left.node.getPsi().getText().equals(";")) {
+        if (leftElement == SchemaLexer.SEMICOLON) {
             return FREE_BREAKS;
         }
 
         // Equals.
-        if (left.node.getPsi().getText().equals("=") || right.node.getPsi().getText().equals("=")) {
+        if (leftElement == SchemaLexer.EQUALS || rightElement == SchemaLexer.EQUALS) {
             return SPACE_OR_BREAK;
         }
 
@@ -128,15 +153,19 @@ public class SchemaBlock implements Block {
 
     @Override
     public @NotNull ChildAttributes getChildAttributes(int newChildIndex) {
+        buildSubBlocks();
         return new ChildAttributes(getIndentForChild(newChildIndex, null), null);
     }
 
     @Override
     public boolean isIncomplete() {
         IElementType element = node.getElementType();
-        IElementType lastElement =
-            subBlocks.isEmpty() ? null : subBlocks.get(subBlocks.size() - 1).node.getElementType();
+        List<SchemaBlock> subBlocks = buildSubBlocks();
+        SchemaBlock lastBlock = subBlocks.isEmpty() ? null : subBlocks.get(subBlocks.size() - 1);
+        IElementType lastElement = lastBlock == null ? null : lastBlock.node.getElementType();
         return
+            (DEFINITION_BLOCKS.contains(element) &&
+             (!INDENT_BLOCKS.contains(lastElement) || lastBlock.isIncomplete())) ||
             (INDENT_BLOCKS.contains(element) && lastElement != SchemaLexer.RBRACE) ||
             (CONTINUATION_BLOCKS.contains(element) && lastElement != SchemaLexer.SEMICOLON);
     }
@@ -149,13 +178,8 @@ public class SchemaBlock implements Block {
     private Indent getIndentForChild(int newChildIndex, @Nullable IElementType newElement) {
         IElementType element = node.getElementType();
         if (INDENT_BLOCKS.contains(element)) {
-            boolean afterLeftBrace = false;
-            boolean afterRightBrace = false;
-            for (int i = 0; i < newChildIndex && i < subBlocks.size(); ++i) {
-                IElementType childElement = subBlocks.get(i).node.getElementType();
-                afterLeftBrace |= childElement == SchemaLexer.LBRACE;
-                afterRightBrace |= childElement == SchemaLexer.RBRACE;
-            }
+            boolean afterLeftBrace = leftBraceIndex >= 0 && leftBraceIndex < newChildIndex;
+            boolean afterRightBrace = rightBraceIndex >= 0 && rightBraceIndex < newChildIndex;
             boolean shouldIndent = afterLeftBrace && !afterRightBrace && newElement != SchemaLexer.RBRACE;
             return shouldIndent ? Indent.getNormalIndent() : Indent.getNoneIndent();
         }
@@ -0,0 +1,151 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.SchemaIcons;
+import com.improbable.spatialos.schema.intellij.parser.SchemaAnnotator;
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionElement;
+import com.improbable.spatialos.schema.intellij.psi.SchemaEnum;
+import com.improbable.spatialos.schema.intellij.psi.SchemaFile;
+import com.improbable.spatialos.schema.intellij.psi.SchemaNameIndex;
+import com.improbable.spatialos.schema.intellij.psi.SchemaTypeReferenceElement;
+import com.improbable.spatialos.schema.intellij.psi.SchemaTypeResolver;
+import com.intellij.codeInsight.completion.CompletionContributor;
+import com.intellij.codeInsight.completion.CompletionParameters;
+import com.intellij.codeInsight.completion.CompletionProvider;
+import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.project.Project;
+import com.intellij.patterns.PlatformPatterns;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.util.ProcessingContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Completes type names from the built-in types and the name index, and enum values in annotations. Only the types and
+// enums declared in the file or the files it imports are offered, since nothing else would resolve. Index keys are
+// filtered by the typed prefix before any definition is loaded, so only matching definitions are ever looked at.
+public class SchemaCompletionContributor extends CompletionContributor {
+    private static final TokenSet TYPE_DEFINITIONS = TokenSet.create(SchemaParser.ENUM_DEFINITION,
+                                                                     SchemaParser.TYPE_DEFINITION);
+    private static final TokenSet FIELD_TYPE_NAMES = TokenSet.create(SchemaParser.TYPE_NAME,
+                                                                      SchemaParser.TYPE_PARAMETER_NAME);
+
+    public SchemaCompletionContributor() {
+        extend(CompletionType.BASIC,
+               PlatformPatterns.psiElement(SchemaLexer.IDENTIFIER).withParent(SchemaTypeReferenceElement.class),
+               new CompletionProvider<CompletionParameters>() {
+                   @Override
+                   protected void addCompletions(@NotNull CompletionParameters parameters, ProcessingContext context,
+                                                 @NotNull CompletionResultSet result) {
+                       addReferenceCompletions(parameters, result);
+                   }
+               });
+    }
+
+    private static void addReferenceCompletions(@NotNull CompletionParameters parameters,
+                                                @NotNull CompletionResultSet result) {
+        PsiElement reference = parameters.getPosition().getParent();
+        IElementType elementType = reference.getNode().getElementType();
+        String typed = reference.getText().substring(0, parameters.getOffset() - reference.getTextOffset());
+        int lastDot = typed.lastIndexOf('.');
+        if (elementType == SchemaParser.ENUM_REFERENCE && lastDot > 0 &&
+            addEnumValues(typed.substring(0, lastDot), reference, result)) {
+            return;
+        }
+        if (isFieldType(reference) && lastDot < 0) {
+            for (String name : SchemaAnnotator.BUILT_IN_TYPES) {
+                result.addElement(LookupElementBuilder.create(name).bold());
+            }
+            if (elementType == SchemaParser.TYPE_NAME) {
+                for (String name : SchemaAnnotator.BUILT_IN_GENERIC_TYPES) {
+                    result.addElement(LookupElementBuilder.create(name).bold());
+                }
+            }
+        }
+        addTypeNames(reference, lastDot >= 0, result);
+    }
+
+    // Built-in types can only be the type of a field or one of its type parameters. The parser also makes TYPE_NAMEs
+    // of annotation types and values, and of the types of commands, events and data definitions, and those can only
+    // be user types and enums.
+    private static boolean isFieldType(@NotNull PsiElement reference) {
+        PsiElement fieldType = reference.getParent();
+        PsiElement field = fieldType == null ? null : fieldType.getParent();
+        return field != null && FIELD_TYPE_NAMES.contains(reference.getNode().getElementType()) &&
+               fieldType.getNode().getElementType() == SchemaParser.FIELD_TYPE &&
+               field.getNode().getElementType() == SchemaParser.FIELD_DEFINITION;
+    }
+
+    private static boolean addEnumValues(@NotNull String enumName, @NotNull PsiElement context,
+                                         @NotNull CompletionResultSet result) {
+        PsiFile file = context.getContainingFile();
+        if (!(file instanceof SchemaFile)) {
+            return false;
+        }
+        SchemaDefinitionElement definition =
+            SchemaTypeResolver.getInstance((SchemaFile) file).resolve(enumName, context);
+        if (!(definition instanceof SchemaEnum)) {
+            return false;
+        }
+        for (String value : ((SchemaEnum) definition).getValueNames()) {
+            result.addElement(LookupElementBuilder.create(value).withTypeText(definition.getName()));
+        }
+        return true;
+    }
+
+    // After a '.' only the last part of the name is completed. Otherwise the name is inserted relative to the
+    // package of the file.
+    private static void addTypeNames(@NotNull PsiElement reference, boolean qualified,
+                                     @NotNull CompletionResultSet result) {
+        Project project = reference.getProject();
+        PsiFile file = reference.getContainingFile();
+        if (!(file instanceof SchemaFile)) {
+            return;
+        }
+        String packageName = ((SchemaFile) file).getPackageName();
+        String packagePrefix = packageName.isEmpty() ? "" : packageName + ".";
+        GlobalSearchScope scope = SchemaTypeResolver.getInstance((SchemaFile) file).getScope();
+        PrefixMatcher matcher = result.getPrefixMatcher();
+        List<String> names = new ArrayList<>();
+        StubIndex.getInstance().processAllKeys(SchemaNameIndex.KEY, name -> {
+            if (matcher.prefixMatches(name)) {
+                names.add(name);
+            }
+            return true;
+        }, scope, null);
+        for (String name : names) {
+            for (SchemaDefinitionElement definition :
+                 StubIndex.getElements(SchemaNameIndex.KEY, name, project, scope, SchemaDefinitionElement.class)) {
+                if (TYPE_DEFINITIONS.contains(definition.getElementType())) {
+                    result.addElement(createLookup(definition, name, qualified ? null : packagePrefix));
+                }
+            }
+        }
+    }
+
+    private static @NotNull LookupElementBuilder createLookup(@NotNull SchemaDefinitionElement definition,
+                                                              @NotNull String name, @Nullable String packagePrefix) {
+        String lookupString = name;
+        if (packagePrefix != null) {
+            String qualifiedName = definition.getQualifiedName();
+            lookupString = !packagePrefix.isEmpty() && qualifiedName.startsWith(packagePrefix) ?
+                           qualifiedName.substring(packagePrefix.length()) : qualifiedName;
+        }
+        return LookupElementBuilder.create(definition, lookupString)
+            .withLookupString(name)
+            .withPresentableText(name)
+            .withIcon(SchemaIcons.FILE_TYPE)
+            .withTypeText(definition.getPresentation().getLocationString());
+    }
+}
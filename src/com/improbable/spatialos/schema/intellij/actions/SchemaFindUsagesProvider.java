@@ -0,0 +1,69 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionElement;
+import com.intellij.lang.cacheBuilder.DefaultWordsScanner;
+import com.intellij.lang.cacheBuilder.WordsScanner;
+import com.intellij.lang.findUsages.FindUsagesProvider;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class SchemaFindUsagesProvider implements FindUsagesProvider {
+    @Override
+    public @Nullable WordsScanner getWordsScanner() {
+        // Identifiers are split into words at each '.', so a qualified reference such as "pkg.Type" is indexed under
+        // both "pkg" and "Type".
+        return new DefaultWordsScanner(new SchemaLexer(), TokenSet.create(SchemaLexer.IDENTIFIER),
+                                       TokenSet.create(SchemaLexer.COMMENT), TokenSet.create(SchemaLexer.STRING));
+    }
+
+    @Override
+    public boolean canFindUsagesFor(@NotNull PsiElement element) {
+        return element instanceof SchemaDefinitionElement;
+    }
+
+    @Override
+    public @Nullable String getHelpId(@NotNull PsiElement element) {
+        return null;
+    }
+
+    @Override
+    public @NotNull String getType(@NotNull PsiElement element) {
+        if (!(element instanceof SchemaDefinitionElement)) {
+            return "";
+        }
+        IStubElementType elementType = ((SchemaDefinitionElement) element).getElementType();
+        if (elementType == SchemaParser.PACKAGE_DEFINITION) {
+            return SchemaParser.KEYWORD_PACKAGE;
+        }
+        if (elementType == SchemaParser.ENUM_DEFINITION) {
+            return SchemaParser.KEYWORD_ENUM;
+        }
+        if (elementType == SchemaParser.TYPE_DEFINITION) {
+            return SchemaParser.KEYWORD_TYPE;
+        }
+        if (elementType == SchemaParser.COMPONENT_DEFINITION) {
+            return SchemaParser.KEYWORD_COMPONENT;
+        }
+        return SchemaParser.KEYWORD_COMMAND;
+    }
+
+    @Override
+    public @NotNull String getDescriptiveName(@NotNull PsiElement element) {
+        return element instanceof SchemaDefinitionElement ? ((SchemaDefinitionElement) element).getQualifiedName() : "";
+    }
+
+    @Override
+    public @NotNull String getNodeText(@NotNull PsiElement element, boolean useFullName) {
+        if (!(element instanceof SchemaDefinitionElement)) {
+            return "";
+        }
+        SchemaDefinitionElement definition = (SchemaDefinitionElement) element;
+        String name = definition.getName();
+        return useFullName || name == null ? definition.getQualifiedName() : name;
+    }
+}
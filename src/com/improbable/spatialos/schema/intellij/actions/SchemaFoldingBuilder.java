@@ -0,0 +1,76 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.folding.FoldingBuilderEx;
+import com.intellij.lang.folding.FoldingDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchemaFoldingBuilder extends FoldingBuilderEx implements DumbAware {
+    private static final TokenSet BODIES = TokenSet.create(
+        SchemaParser.ENUM_BODY, SchemaParser.TYPE_BODY, SchemaParser.COMPONENT_BODY);
+
+    @Override
+    public @NotNull FoldingDescriptor[] buildFoldRegions(@NotNull PsiElement root, @NotNull Document document,
+                                                         boolean quick) {
+        List<FoldingDescriptor> descriptors = new ArrayList<>();
+        ASTNode rootNode = root.getNode();
+        // Walk the tree in document order without recursion, so deeply nested files can't overflow the stack.
+        ASTNode node = rootNode;
+        while (node != null) {
+            IElementType elementType = node.getElementType();
+            if (BODIES.contains(elementType) || elementType == SchemaParser.ANNOTATION ||
+                elementType == SchemaLexer.COMMENT) {
+                TextRange range = node.getTextRange();
+                if (document.getLineNumber(range.getStartOffset()) != document.getLineNumber(range.getEndOffset())) {
+                    descriptors.add(new FoldingDescriptor(node, range));
+                }
+            }
+            node = getNextNode(node, rootNode, elementType != SchemaLexer.COMMENT);
+        }
+        return descriptors.toArray(FoldingDescriptor.EMPTY);
+    }
+
+    private static @Nullable ASTNode getNextNode(@NotNull ASTNode node, @NotNull ASTNode root, boolean descend) {
+        ASTNode child = descend ? node.getFirstChildNode() : null;
+        if (child != null) {
+            return child;
+        }
+        while (node != root) {
+            ASTNode next = node.getTreeNext();
+            if (next != null) {
+                return next;
+            }
+            node = node.getTreeParent();
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable String getPlaceholderText(@NotNull ASTNode node) {
+        IElementType elementType = node.getElementType();
+        if (elementType == SchemaLexer.COMMENT) {
+            return "/*...*/";
+        }
+        if (elementType == SchemaParser.ANNOTATION) {
+            return "[...]";
+        }
+        return "{...}";
+    }
+
+    @Override
+    public boolean isCollapsedByDefault(@NotNull ASTNode node) {
+        return false;
+    }
+}
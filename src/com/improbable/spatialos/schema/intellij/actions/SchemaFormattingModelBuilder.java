@@ -1,6 +1,7 @@
 package com.improbable.spatialos.schema.intellij.actions;
 
 import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
 import com.intellij.formatting.FormattingModel;
 import com.intellij.formatting.FormattingModelBuilder;
 import com.intellij.formatting.FormattingModelProvider;
@@ -10,20 +11,36 @@ import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.codeStyle.CodeStyleSettings;
+import com.intellij.psi.tree.TokenSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class SchemaFormattingModelBuilder implements FormattingModelBuilder {
+    private static final TokenSet DEFINITIONS = TokenSet.create(
+        SchemaParser.ENUM_DEFINITION, SchemaParser.TYPE_DEFINITION, SchemaParser.COMPONENT_DEFINITION);
+
     @Override
     public @NotNull FormattingModel createModel(PsiElement element, CodeStyleSettings settings) {
         PsiFile containingFile = element.getContainingFile().getViewProvider().getPsi(SchemaLanguage.SCHEMA_LANGUAGE);
-        SchemaBlock block =
-            new SchemaBlock(containingFile.getNode(), Indent.getAbsoluteNoneIndent());
+        // The formatter is given the whole file even for Enter or a selection, since this API has no way to pass the
+        // range. Sub-blocks are built lazily, so only the blocks it descends into for that range are ever built.
+        SchemaBlock block = new SchemaBlock(containingFile.getNode(), Indent.getAbsoluteNoneIndent());
         return FormattingModelProvider.createFormattingModelForPsiFile(containingFile, block, settings);
     }
 
     @Override
     public @Nullable TextRange getRangeAffectingIndent(PsiFile file, int offset, ASTNode elementAtOffset) {
-        return null;
+        if (elementAtOffset == null) {
+            return null;
+        }
+        // The indent of a line only depends on the definition it is in, or on the top-level statement around it.
+        ASTNode topLevelNode = elementAtOffset;
+        for (ASTNode node = elementAtOffset; node.getTreeParent() != null; node = node.getTreeParent()) {
+            if (DEFINITIONS.contains(node.getElementType())) {
+                return node.getTextRange();
+            }
+            topLevelNode = node;
+        }
+        return topLevelNode.getTextRange();
     }
 }
@@ -0,0 +1,41 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionElement;
+import com.improbable.spatialos.schema.intellij.psi.SchemaNameIndex;
+import com.intellij.navigation.GotoClassContributor;
+import com.intellij.navigation.NavigationItem;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.util.ArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+public class SchemaGotoContributor implements GotoClassContributor {
+    @Override
+    public @NotNull String[] getNames(Project project, boolean includeNonProjectItems) {
+        return ArrayUtil.toStringArray(StubIndex.getInstance().getAllKeys(SchemaNameIndex.KEY, project));
+    }
+
+    @Override
+    public @NotNull NavigationItem[] getItemsByName(String name, String pattern, Project project,
+                                                    boolean includeNonProjectItems) {
+        GlobalSearchScope scope = includeNonProjectItems ?
+                                  GlobalSearchScope.allScope(project) : GlobalSearchScope.projectScope(project);
+        Collection<SchemaDefinitionElement> definitions =
+            StubIndex.getElements(SchemaNameIndex.KEY, name, project, scope, SchemaDefinitionElement.class);
+        return definitions.toArray(new NavigationItem[0]);
+    }
+
+    @Override
+    public @Nullable String getQualifiedName(NavigationItem item) {
+        return item instanceof SchemaDefinitionElement ? ((SchemaDefinitionElement) item).getQualifiedName() : null;
+    }
+
+    @Override
+    public @Nullable String getQualifiedNameSeparator() {
+        return ".";
+    }
+}
@@ -0,0 +1,33 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaAnnotator;
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.refactoring.NamesValidator;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SchemaNamesValidator implements NamesValidator {
+    private static final List<String> KEYWORDS = Arrays.asList(
+        SchemaParser.KEYWORD_PACKAGE, SchemaParser.KEYWORD_IMPORT, SchemaParser.KEYWORD_ENUM, SchemaParser.KEYWORD_TYPE,
+        SchemaParser.KEYWORD_COMPONENT, SchemaParser.KEYWORD_OPTION, SchemaParser.KEYWORD_ID,
+        SchemaParser.KEYWORD_DATA, SchemaParser.KEYWORD_EVENT, SchemaParser.KEYWORD_COMMAND);
+
+    @Override
+    public boolean isKeyword(@NotNull String name, Project project) {
+        return KEYWORDS.contains(name) || SchemaAnnotator.BUILT_IN_TYPES.contains(name) ||
+               SchemaAnnotator.BUILT_IN_GENERIC_TYPES.contains(name);
+    }
+
+    // A definition name is a single identifier token without any '.'.
+    @Override
+    public boolean isIdentifier(@NotNull String name, Project project) {
+        SchemaLexer lexer = new SchemaLexer();
+        lexer.start(name);
+        return lexer.getTokenType() == SchemaLexer.IDENTIFIER && lexer.getTokenEnd() == name.length() &&
+               name.indexOf('.') < 0 && !isKeyword(name, project);
+    }
+}
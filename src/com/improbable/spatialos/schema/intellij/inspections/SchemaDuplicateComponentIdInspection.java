@@ -0,0 +1,55 @@
+package com.improbable.spatialos.schema.intellij.inspections;
+
+import com.improbable.spatialos.schema.intellij.psi.SchemaComponent;
+import com.improbable.spatialos.schema.intellij.psi.SchemaComponentIdIndex;
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionElement;
+import com.improbable.spatialos.schema.intellij.psi.SchemaFile;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Reports components whose ID is also used by another component anywhere in the project. Other components are
+// found through SchemaComponentIdIndex, so only the inspected file is parsed.
+public class SchemaDuplicateComponentIdInspection extends LocalInspectionTool {
+    @Override
+    public @Nullable ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                                   boolean isOnTheFly) {
+        if (!(file instanceof SchemaFile)) {
+            return null;
+        }
+        Project project = file.getProject();
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        for (SchemaComponent component : PsiTreeUtil.getStubChildrenOfTypeAsList(file, SchemaComponent.class)) {
+            Integer componentId = component.getComponentId();
+            ASTNode idNode = component.getComponentIdNode();
+            if (componentId == null || idNode == null) {
+                continue;
+            }
+            for (SchemaDefinitionElement other : StubIndex.getElements(
+                     SchemaComponentIdIndex.KEY, componentId, project, scope, SchemaDefinitionElement.class)) {
+                if (!other.isEquivalentTo(component)) {
+                    problems.add(manager.createProblemDescriptor(
+                        idNode.getPsi(), String.format("Component ID %d is also used by %s.", componentId,
+                                                       other.getQualifiedName()),
+                        (LocalQuickFix) null, ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+                    break;
+                }
+            }
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+}
@@ -1,5 +1,9 @@
 package com.improbable.spatialos.schema.intellij.parser;
 
+import com.improbable.spatialos.schema.intellij.psi.SchemaFile;
+import com.improbable.spatialos.schema.intellij.psi.SchemaFileModel;
+import com.improbable.spatialos.schema.intellij.psi.SchemaImportRoots;
+import com.improbable.spatialos.schema.intellij.psi.SchemaTypeResolver;
 import com.intellij.lang.ASTNode;
 import com.intellij.lang.annotation.AnnotationHolder;
 import com.intellij.lang.annotation.Annotator;
@@ -7,60 +11,104 @@ import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.util.text.CharSequenceHashingStrategy;
+import gnu.trove.THashSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 public class SchemaAnnotator implements Annotator {
     public static final List<String> OPTION_VALUES = Arrays.asList("true", "false");
-    private static final List<String> BUILT_IN_GENERIC_TYPES = Arrays.asList("option", "list", "map");
-    private static final List<String> BUILT_IN_TYPES = Arrays.asList(
+    public static final List<String> BUILT_IN_GENERIC_TYPES = Arrays.asList("option", "list", "map");
+    public static final List<String> BUILT_IN_TYPES = Arrays.asList(
             "double", "float", "string", "bytes", "int32", "int64", "uint32", "uint64", "sint32", "sint64", "fixed32",
-            "fixed64", "sfixed32", "sfixed64", "bool"
+            "fixed64", "sfixed32", "sfixed64", "bool", "EntityId", "Entity"
     );
 
+    // The same names, looked up by the text of a token without copying it into a String.
+    private static final Set<CharSequence> OPTION_VALUE_SET = createNameSet(OPTION_VALUES);
+    private static final Set<CharSequence> BUILT_IN_GENERIC_TYPE_SET = createNameSet(BUILT_IN_GENERIC_TYPES);
+    private static final Set<CharSequence> BUILT_IN_TYPE_SET = createNameSet(BUILT_IN_TYPES);
+
+    private static @NotNull Set<CharSequence> createNameSet(@NotNull List<String> names) {
+        Set<CharSequence> set = new THashSet<>(CharSequenceHashingStrategy.CASE_SENSITIVE);
+        set.addAll(names);
+        return set;
+    }
+
     @Override
     public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
-        if(element.getNode().getElementType() instanceof SchemaParser.RangedNode) {
-            for (SchemaParser.RangedNodeEntry entry : ((SchemaParser.RangedNode) element.getNode().getElementType()).entries) {
-                highlight(holder, element, entry.attributes, entry.from, entry.to);
-            }
-        }
-        if (element.getNode().getElementType() == SchemaParser.KEYWORD) {
+        ASTNode node = element.getNode();
+        IElementType elementType = node.getElementType();
+        // Punctuation, keywords and built-in types are coloured by SchemaSyntaxHighlighter. Only the names whose
+        // meaning depends on where they appear are coloured here.
+        if (elementType == SchemaParser.KEYWORD) {
             highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
-        }
-        if (element.getNode().getElementType() == SchemaParser.OPTION_VALUE &&
-            OPTION_VALUES.contains(element.getText())) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.NUMBER);
-        }
-        if (element.getNode().getElementType() == SchemaParser.TYPE_NAME &&
-            BUILT_IN_GENERIC_TYPES.contains(element.getText())) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
-        }
-        if (element.getNode().getElementType() == SchemaParser.TYPE_PARAMETER_NAME ||
-             element.getNode().getElementType() == SchemaParser.TYPE_NAME) {
-            if (BUILT_IN_TYPES.contains(element.getText())) {
-                highlight(holder, element, DefaultLanguageHighlighterColors.KEYWORD);
-            } else {
+        } else if (elementType == SchemaParser.COMMAND_NAME) {
+            highlight(holder, element, DefaultLanguageHighlighterColors.INSTANCE_METHOD);
+        } else if (elementType == SchemaParser.OPTION_VALUE) {
+            if (OPTION_VALUE_SET.contains(getTokenText(node))) {
+                highlight(holder, element, DefaultLanguageHighlighterColors.NUMBER);
+            }
+        } else if (elementType == SchemaParser.TYPE_NAME || elementType == SchemaParser.TYPE_PARAMETER_NAME) {
+            CharSequence name = getTokenText(node);
+            if (!BUILT_IN_TYPE_SET.contains(name) &&
+                !(elementType == SchemaParser.TYPE_NAME && BUILT_IN_GENERIC_TYPE_SET.contains(name))) {
                 highlight(holder, element, DefaultLanguageHighlighterColors.METADATA);
+                checkReference(holder, element);
             }
+        } else if (elementType == SchemaParser.IMPORT_FILENAME) {
+            checkImport(holder, element);
+        } else if (elementType == SchemaParser.ANNOTATION_CONSTRUCTOR) {
+            // Highlight each part of the qualified name, leaving the '.' separators uncoloured.
+            CharSequence text = getTokenText(node);
+            int start = 0;
+            for (int i = 0; i < text.length(); ++i) {
+                if (text.charAt(i) == '.') {
+                    highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, start, i);
+                    start = i + 1;
+                }
+            }
+            highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, start, text.length());
+        } else if (elementType == SchemaParser.ENUM_REFERENCE) {
+            CharSequence text = getTokenText(node);
+            int index = 0;
+            while (index < text.length() && text.charAt(index) != '.') {
+                ++index;
+            }
+            highlight(holder, element, DefaultLanguageHighlighterColors.METADATA, 0, index);
+            highlight(holder, element, DefaultLanguageHighlighterColors.NUMBER, index + 1, text.length());
         }
-        if(element.getNode().getElementType() == SchemaParser.COMMAND_NAME) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.INSTANCE_METHOD);
-        }
-        if(element.getNode().getText().equals("{") || element.getNode().getText().equals("}") ||
-           element.getNode().getText().equals("[") || element.getNode().getText().equals("]")) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.BRACKETS);
-        }
-        if(element.getNode().getText().equals("(") || element.getNode().getText().equals(")")) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.PARENTHESES);
+    }
+
+    // The parser wraps single tokens in nodes such as TYPE_NAME, so the text can be read straight from the token
+    // rather than built from the node.
+    private static @NotNull CharSequence getTokenText(@NotNull ASTNode node) {
+        ASTNode child = node.getFirstChildNode();
+        return child != null && child == node.getLastChildNode() ? child.getChars() : node.getChars();
+    }
+
+    private void checkImport(@NotNull AnnotationHolder holder, @NotNull PsiElement element) {
+        String importPath = SchemaFileModel.getImportPath(element.getNode());
+        if (SchemaImportRoots.getInstance(element.getProject()).findImportedFile(importPath) == null) {
+            holder.createErrorAnnotation(element, String.format("Cannot resolve import '%s'.", importPath));
         }
-        if(element.getNode().getText().equals(",")) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.COMMA);
+    }
+
+    // Unresolved types are only reported once every import has been found. Otherwise the missing import is the error.
+    private void checkReference(@NotNull AnnotationHolder holder, @NotNull PsiElement element) {
+        PsiFile file = element.getContainingFile();
+        if (!(file instanceof SchemaFile) || !SchemaTypeResolver.getInstance((SchemaFile) file).areImportsResolved()) {
+            return;
         }
-        if(element.getNode().getText().equals(";")) {
-            highlight(holder, element, DefaultLanguageHighlighterColors.SEMICOLON);
+        PsiReference reference = element.getReference();
+        if (reference != null && reference.resolve() == null) {
+            holder.createErrorAnnotation(element, String.format("Cannot resolve type '%s'.", element.getText()));
         }
     }
 
@@ -73,4 +121,4 @@ public class SchemaAnnotator implements Annotator {
                            @NotNull TextAttributesKey attributes, int start, int end) {
         holder.createInfoAnnotation(new TextRange(element.getTextOffset() + start, element.getTextOffset() + end), null).setTextAttributes(attributes);
     }
-}
\ No newline at end of file
+}
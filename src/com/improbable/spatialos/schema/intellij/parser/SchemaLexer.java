@@ -3,15 +3,15 @@ package com.improbable.spatialos.schema.intellij.parser;
 import com.improbable.spatialos.schema.intellij.SchemaLanguage;
 import com.intellij.lexer.Lexer;
 import com.intellij.lexer.LexerPosition;
+import com.intellij.lexer.LexerPositionImpl;
 import com.intellij.psi.TokenType;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.text.CharArrayUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class SchemaLexer extends Lexer {
-    public static final SchemaLexer SCHEMA_LEXER = new SchemaLexer();
     public static final IElementType COMMENT = new Token("Comment");
     public static final IElementType IDENTIFIER = new Token("Identifier");
     public static final IElementType INTEGER = new Token("Integer");
@@ -30,26 +30,16 @@ public class SchemaLexer extends Lexer {
     public static final IElementType COLON = new Token(":");
     public static final IElementType SEMICOLON = new Token(";");
 
-    private static final String IDENTIFIER_PATTERN_STR = "[_a-zA-Z][_a-zA-Z0-9]*(\\.([_a-zA-Z][_a-zA-Z0-9]*)?)*";
-    private static final Pattern IDENTIFIER_PATTERN =
-        Pattern.compile("\\.(" + IDENTIFIER_PATTERN_STR + ")?|" + IDENTIFIER_PATTERN_STR);
-
-    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
-    private static final Pattern COMMENT_PATTERN = Pattern.compile("//[^\n]*|/\\*([^*]|\\*([^/]|$))*(\\*/|$)");
-    private static final Pattern INTEGER_PATTERN = Pattern.compile("[0-9]+");
-    private static final Pattern STRING_PATTERN = Pattern.compile("\"[^\n\"]*\"?");
-    private static final Pattern LBRACE_PATTERN = Pattern.compile("\\{");
-    private static final Pattern RBRACE_PATTERN = Pattern.compile("}");
-    private static final Pattern LPARENTHESES_PATTERN = Pattern.compile("\\(");
-    private static final Pattern RPARENTHESES_PATTERN = Pattern.compile("\\)");
-    private static final Pattern LBRACKET_PATTERN = Pattern.compile("\\[");
-    private static final Pattern RBRACKET_PATTERN = Pattern.compile("]");
-    private static final Pattern LANGLE_PATTERN = Pattern.compile("<");
-    private static final Pattern RANGLE_PATTERN = Pattern.compile(">");
-    private static final Pattern EQUALS_PATTERN = Pattern.compile("=");
-    private static final Pattern COMMA_PATTERN = Pattern.compile(",");
-    private static final Pattern COLON_PATTERN = Pattern.compile(":");
-    private static final Pattern SEMICOLON_PATTERN = Pattern.compile(";");
+    // Only produced by the highlighting lexer, in place of an IDENTIFIER whose text is one of these names.
+    public static final IElementType KEYWORD = new Token("Keyword");
+    public static final IElementType BUILT_IN_TYPE = new Token("Built-in Type");
+
+    private static final String[] KEYWORDS = {
+            SchemaParser.KEYWORD_PACKAGE, SchemaParser.KEYWORD_IMPORT, SchemaParser.KEYWORD_ENUM,
+            SchemaParser.KEYWORD_TYPE, SchemaParser.KEYWORD_COMPONENT, SchemaParser.KEYWORD_OPTION
+    };
+    private static final String[] BUILT_IN_TYPES = ArrayUtil.toStringArray(
+            ContainerUtil.concat(SchemaAnnotator.BUILT_IN_TYPES, SchemaAnnotator.BUILT_IN_GENERIC_TYPES));
 
     private static class Token extends IElementType {
         public Token(String debugName) {
@@ -57,63 +47,211 @@ public class SchemaLexer extends Lexer {
         }
     }
 
+    public static final int STATE_DEFAULT = 0;
+    public static final int STATE_BLOCK_COMMENT = 1;
+
+    // When set, block comments are emitted as one COMMENT token per line, with every token after the first starting
+    // in STATE_BLOCK_COMMENT. This lets the editor highlighter stop relexing at the next line after an edit instead
+    // of at the end of a (possibly unterminated) comment. Keywords and built-in type names are also emitted as
+    // KEYWORD and BUILT_IN_TYPE tokens so they are coloured without waiting for the annotator. The parser keeps
+    // whole comments as single tokens and sees every name as an IDENTIFIER.
+    private final boolean highlighting;
+
     private CharSequence buffer = null;
     private int endOffset = 0;
 
     private IElementType currentToken = null;
     private int currentTokenStart = 0;
     private int currentTokenEnd = 0;
+    private int currentTokenState = STATE_DEFAULT;
+    private int nextTokenState = STATE_DEFAULT;
+
+    public SchemaLexer() {
+        this(false);
+    }
+
+    public SchemaLexer(boolean highlighting) {
+        this.highlighting = highlighting;
+    }
 
     private void computeCurrentToken() {
+        nextTokenState = STATE_DEFAULT;
         if (currentTokenStart >= endOffset) {
             currentTokenEnd = endOffset;
             currentToken = null;
             return;
         }
-        if (!checkCurrentToken(WHITESPACE_PATTERN, TokenType.WHITE_SPACE) &&
-            !checkCurrentToken(COMMENT_PATTERN, COMMENT) &&
-            !checkCurrentToken(IDENTIFIER_PATTERN, IDENTIFIER) &&
-            !checkCurrentToken(INTEGER_PATTERN, INTEGER) &&
-            !checkCurrentToken(STRING_PATTERN, STRING) &&
-            !checkCurrentToken(LBRACE_PATTERN, LBRACE) &&
-            !checkCurrentToken(RBRACE_PATTERN, RBRACE) &&
-            !checkCurrentToken(LPARENTHESES_PATTERN, LPARENTHESES) &&
-            !checkCurrentToken(RPARENTHESES_PATTERN, RPARENTHESES) &&
-            !checkCurrentToken(LANGLE_PATTERN, LANGLE) &&
-            !checkCurrentToken(RANGLE_PATTERN, RANGLE) &&
-            !checkCurrentToken(EQUALS_PATTERN, EQUALS) &&
-            !checkCurrentToken(COMMA_PATTERN, COMMA) &&
-            !checkCurrentToken(SEMICOLON_PATTERN, SEMICOLON) &&
-            !checkCurrentToken(LBRACKET_PATTERN, LBRACKET) &&
-            !checkCurrentToken(RBRACKET_PATTERN, RBRACKET) &&
-            !checkCurrentToken(COLON_PATTERN, COLON)) {
-            currentTokenEnd = 1 + currentTokenStart;
-            currentToken = TokenType.BAD_CHARACTER;
+        int position = currentTokenStart;
+        if (currentTokenState == STATE_BLOCK_COMMENT) {
+            setCurrentToken(COMMENT, scanBlockComment(position));
+            return;
+        }
+        char c = buffer.charAt(position);
+        switch (c) {
+            case ' ': case '\t': case '\n': case '\u000B': case '\f': case '\r':
+                while (position < endOffset && isWhitespace(buffer.charAt(position))) {
+                    ++position;
+                }
+                setCurrentToken(TokenType.WHITE_SPACE, position);
+                return;
+            case '/':
+                if (position + 1 < endOffset && buffer.charAt(position + 1) == '/') {
+                    position += 2;
+                    while (position < endOffset && buffer.charAt(position) != '\n') {
+                        ++position;
+                    }
+                    setCurrentToken(COMMENT, position);
+                    return;
+                }
+                if (position + 1 < endOffset && buffer.charAt(position + 1) == '*') {
+                    setCurrentToken(COMMENT, scanBlockComment(position + 2));
+                    return;
+                }
+                setCurrentToken(TokenType.BAD_CHARACTER, position + 1);
+                return;
+            case '.':
+                // Unlike a '.' inside an identifier, a leading '.' must be directly followed by a name to continue,
+                // so "..a" is lexed as "." followed by ".a".
+                ++position;
+                setCurrentToken(IDENTIFIER,
+                                position < endOffset && isIdentifierStart(buffer.charAt(position)) ?
+                                scanIdentifier(position) : position);
+                return;
+            case '"':
+                ++position;
+                while (position < endOffset && buffer.charAt(position) != '"' && buffer.charAt(position) != '\n') {
+                    ++position;
+                }
+                if (position < endOffset && buffer.charAt(position) == '"') {
+                    ++position;
+                }
+                setCurrentToken(STRING, position);
+                return;
+            case '{': setCurrentToken(LBRACE, position + 1); return;
+            case '}': setCurrentToken(RBRACE, position + 1); return;
+            case '(': setCurrentToken(LPARENTHESES, position + 1); return;
+            case ')': setCurrentToken(RPARENTHESES, position + 1); return;
+            case '[': setCurrentToken(LBRACKET, position + 1); return;
+            case ']': setCurrentToken(RBRACKET, position + 1); return;
+            case '<': setCurrentToken(LANGLE, position + 1); return;
+            case '>': setCurrentToken(RANGLE, position + 1); return;
+            case '=': setCurrentToken(EQUALS, position + 1); return;
+            case ',': setCurrentToken(COMMA, position + 1); return;
+            case ':': setCurrentToken(COLON, position + 1); return;
+            case ';': setCurrentToken(SEMICOLON, position + 1); return;
+            default:
+                break;
+        }
+        if (isIdentifierStart(c)) {
+            int end = scanIdentifier(position);
+            setCurrentToken(highlighting ? getHighlightingType(position, end) : IDENTIFIER, end);
+        } else if (isDigit(c)) {
+            while (position < endOffset && isDigit(buffer.charAt(position))) {
+                ++position;
+            }
+            setCurrentToken(INTEGER, position);
+        } else {
+            setCurrentToken(TokenType.BAD_CHARACTER, position + 1);
+        }
+    }
+
+    private void setCurrentToken(IElementType token, int end) {
+        currentToken = token;
+        currentTokenEnd = end;
+    }
+
+    // Scans a (possibly dotted) identifier starting at an identifier start character. Each '.' may be followed by
+    // another '.' or by a name, but a digit directly after a '.' ends the identifier.
+    private int scanIdentifier(int position) {
+        position = scanName(position);
+        while (position < endOffset && buffer.charAt(position) == '.') {
+            ++position;
+            if (position < endOffset && isIdentifierStart(buffer.charAt(position))) {
+                position = scanName(position);
+            }
+        }
+        return position;
+    }
+
+    private IElementType getHighlightingType(int start, int end) {
+        if (matchesAny(KEYWORDS, start, end)) {
+            return KEYWORD;
+        }
+        if (matchesAny(BUILT_IN_TYPES, start, end)) {
+            return BUILT_IN_TYPE;
         }
+        return IDENTIFIER;
     }
 
-    private boolean checkCurrentToken(Pattern pattern, IElementType token) {
-        Matcher matcher = pattern.matcher(buffer);
-        matcher.region(currentTokenStart, endOffset);
-        if (matcher.lookingAt()) {
-            currentTokenEnd = matcher.end();
-            currentToken = token;
-            return true;
+    // regionMatches only checks that the token starts with the name, so the lengths are compared first.
+    private boolean matchesAny(String[] names, int start, int end) {
+        for (String name : names) {
+            if (end - start == name.length() && CharArrayUtil.regionMatches(buffer, start, end, name)) {
+                return true;
+            }
         }
         return false;
     }
 
+    private int scanName(int position) {
+        ++position;
+        while (position < endOffset && isIdentifierPart(buffer.charAt(position))) {
+            ++position;
+        }
+        return position;
+    }
+
+    // Scans the body of a block comment starting just after the opening "/*". A '*' always consumes the character
+    // after it, so the comment only ends at a "*/" whose '*' is not itself the second half of such a pair, or at the
+    // end of the buffer.
+    private int scanBlockComment(int position) {
+        while (position < endOffset) {
+            boolean lineBreak;
+            if (buffer.charAt(position) != '*') {
+                lineBreak = buffer.charAt(position) == '\n';
+                ++position;
+            } else if (position + 1 < endOffset && buffer.charAt(position + 1) == '/') {
+                return position + 2;
+            } else {
+                position = Math.min(position + 2, endOffset);
+                lineBreak = buffer.charAt(position - 1) == '\n';
+            }
+            if (highlighting && lineBreak && position < endOffset) {
+                nextTokenState = STATE_BLOCK_COMMENT;
+                return position;
+            }
+        }
+        return endOffset;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c);
+    }
+
     @Override
     public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
         this.buffer = buffer;
         this.endOffset = endOffset;
         currentTokenStart = startOffset;
+        currentTokenState = initialState;
         computeCurrentToken();
     }
 
     @Override
     public int getState() {
-        return 0;
+        return currentTokenState;
     }
 
     @Override
@@ -134,27 +272,18 @@ public class SchemaLexer extends Lexer {
     @Override
     public void advance() {
         currentTokenStart = currentTokenEnd;
+        currentTokenState = nextTokenState;
         computeCurrentToken();
     }
 
     @Override
     public @NotNull LexerPosition getCurrentPosition() {
-        return new LexerPosition() {
-            @Override
-            public int getOffset() {
-                return currentTokenStart;
-            }
-
-            @Override
-            public int getState() {
-                return 0;
-            }
-        };
+        return new LexerPositionImpl(currentTokenStart, currentTokenState);
     }
 
     @Override
     public void restore(@NotNull LexerPosition lexerPosition) {
-        currentTokenStart = lexerPosition.getOffset();
+        start(buffer, lexerPosition.getOffset(), endOffset, lexerPosition.getState());
     }
 
     @Override
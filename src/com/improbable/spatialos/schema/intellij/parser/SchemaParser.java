@@ -1,17 +1,22 @@
 package com.improbable.spatialos.schema.intellij.parser;
 
 import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionStubElementType;
+import com.improbable.spatialos.schema.intellij.psi.SchemaFileStubElementType;
 import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
 import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
 import com.intellij.lang.PsiParser;
-import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
-import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.IFileElementType;
+import com.intellij.psi.tree.IReparseableElementType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -30,12 +35,12 @@ public class SchemaParser implements PsiParser {
     public static final String KEYWORD_COMMAND = "command";
     public static final String KEYWORD_ANNOTATION_START = "[";
 
-    public static final IFileElementType SCHEMA_FILE = new IFileElementType(SchemaLanguage.SCHEMA_LANGUAGE);
+    public static final IFileElementType SCHEMA_FILE = new SchemaFileStubElementType();
 
     public static final IElementType KEYWORD = new Node("Keyword");
     public static final IElementType DEFINITION_NAME = new Node("Definition Name");
 
-    public static final IElementType PACKAGE_DEFINITION = new Node("Package Definition");
+    public static final IElementType PACKAGE_DEFINITION = new SchemaDefinitionStubElementType("Package Definition");
     public static final IElementType PACKAGE_NAME = new Node("Package Name");
 
     public static final IElementType IMPORT_DEFINITION = new Node("Import Definition");
@@ -52,22 +57,34 @@ public class SchemaParser implements PsiParser {
     public static final IElementType FIELD_NAME = new Node("Field Name");
     public static final IElementType FIELD_NUMBER = new Node("Field Number");
 
-    public static final IElementType ENUM_DEFINITION = new Node("Enum Definition");
+    public static final IElementType ENUM_DEFINITION = new SchemaDefinitionStubElementType("Enum Definition");
+    public static final IElementType ENUM_BODY = new BodyNode("Enum Body", KEYWORD_ENUM);
     public static final IElementType ENUM_VALUE_DEFINITION = new Node("Enum Value Definition");
 
     public static final IElementType DATA_DEFINITION = new Node("Data Definition");
     public static final IElementType FIELD_DEFINITION = new Node("Field Definition");
     public static final IElementType EVENT_DEFINITION = new Node("Event Definition");
 
-    public static final IElementType TYPE_DEFINITION = new Node("Type Definition");
-    public static final IElementType COMPONENT_DEFINITION = new Node("Component Definition");
+    public static final IElementType TYPE_DEFINITION = new SchemaDefinitionStubElementType("Type Definition");
+    public static final IElementType TYPE_BODY = new BodyNode("Type Body", KEYWORD_TYPE);
+    public static final IElementType COMPONENT_DEFINITION = new SchemaDefinitionStubElementType("Component Definition");
+    public static final IElementType COMPONENT_BODY = new BodyNode("Component Body", KEYWORD_COMPONENT);
     public static final IElementType COMPONENT_ID_DEFINITION = new Node("Component ID Definition");
 
-    public static final IElementType COMMAND_DEFINITION = new Node("Command Definition");
+    public static final IElementType COMMAND_DEFINITION = new SchemaDefinitionStubElementType("Command Definition");
     public static final IElementType COMMAND_NAME = new Node("Command Name");
     public static final IElementType ANNOTATION = new Node("Annotation Definition");
     public static final IElementType ANNOTATION_FIELD = new Node("Annotation Field");
     public static final IElementType ANNOTATION_FIELD_ARRAY = new Node("Annotation Field Array");
+    public static final IElementType ANNOTATION_CONSTRUCTOR = new Node("Annotation Constructor");
+    public static final IElementType ENUM_REFERENCE = new Node("Enum Reference");
+
+    // Error recovery stops in front of these, so that a mistake in one definition or member doesn't swallow the ones
+    // after it.
+    private static final List<String> TOP_LEVEL_KEYWORDS = Arrays.asList(
+        KEYWORD_PACKAGE, KEYWORD_IMPORT, KEYWORD_ENUM, KEYWORD_TYPE, KEYWORD_COMPONENT);
+    private static final List<String> MEMBER_KEYWORDS = Arrays.asList(
+        KEYWORD_OPTION, KEYWORD_ID, KEYWORD_DATA, KEYWORD_EVENT, KEYWORD_COMMAND);
 
     public static final Pattern OPTION_PATTERN = Pattern.compile("(?i)(?:\\d+\\.?\\d*|true|false|\"[^\"]*\"?|_)");
 
@@ -77,29 +94,47 @@ public class SchemaParser implements PsiParser {
         }
     }
 
-    public static class RangedNode extends Node {
-
-        public final List<RangedNodeEntry> entries = new ArrayList<>();
-
-        public RangedNode(String debugName) {
-            super(debugName);
-        }
-
-        public RangedNode addEntry(int from, int to, TextAttributesKey attributes) {
-            entries.add(new RangedNodeEntry(from, to, attributes));
-            return this;
-        }
-    }
-
-    public static class RangedNodeEntry {
-        public final int from;
-        public final int to;
-        public final TextAttributesKey attributes;
+    // The brace-delimited body of an enum, type or component. Bodies are collapsed into lazily parsed chameleons while
+    // parsing the file, so an edit inside a single body only reparses that body.
+    private static class BodyNode extends IReparseableElementType {
+        private final String keyword;
 
-        private RangedNodeEntry(int from, int to, TextAttributesKey attributes) {
-            this.from = from;
-            this.to = to;
-            this.attributes = attributes;
+        public BodyNode(String debugName, String keyword) {
+            super(debugName, SchemaLanguage.SCHEMA_LANGUAGE);
+            this.keyword = keyword;
+        }
+
+        @Override
+        protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+            PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(
+                psi.getProject(), chameleon, new SchemaLexer(), SchemaLanguage.SCHEMA_LANGUAGE, chameleon.getChars());
+            ASTNode definition = chameleon.getTreeParent();
+            ASTNode name = definition == null ? null : definition.findChildByType(DEFINITION_NAME);
+            Instance instance = new Instance(builder);
+            instance.parseBody(this, keyword, name == null ? "" : name.getText());
+            return builder.getTreeBuilt().getFirstChildNode();
+        }
+
+        @Override
+        public boolean isParsable(CharSequence buffer, Language fileLanguage, Project project) {
+            // The new text must still be a single brace-balanced block, otherwise the edit changed the structure
+            // around the body and the parent has to be reparsed.
+            SchemaLexer lexer = new SchemaLexer();
+            lexer.start(buffer);
+            if (lexer.getTokenType() != SchemaLexer.LBRACE) {
+                return false;
+            }
+            int depth = 0;
+            while (lexer.getTokenType() != null) {
+                if (lexer.getTokenType() == SchemaLexer.LBRACE) {
+                    ++depth;
+                } else if (lexer.getTokenType() == SchemaLexer.RBRACE && --depth == 0) {
+                    lexer.advance();
+                    return lexer.getTokenType() == null;
+                }
+                lexer.advance();
+            }
+            return false;
         }
     }
 
@@ -130,28 +165,58 @@ public class SchemaParser implements PsiParser {
             String errorMessage = String.format(s, args);
             PsiBuilder.Marker errorMarker = builder.mark();
 
-            while (builder.getTokenType() != null && !builder.eof()) {
-                if ((construct == Construct.STATEMENT || construct == Construct.TOP_LEVEL) &&
-                    isToken(SchemaLexer.SEMICOLON)) {
-                    errorMarker.error(errorMessage);
-                    builder.advanceLexer();
-                    return;
+            // Nothing at the top level can start with the current token, so skip at least that one.
+            boolean mustAdvance = construct == Construct.TOP_LEVEL;
+            while (!builder.eof()) {
+                if (!mustAdvance && isRecoveryKeyword(construct)) {
+                    break;
                 }
-                if ((construct == Construct.BRACES || construct == Construct.TOP_LEVEL) &&
-                    isToken(SchemaLexer.RBRACE)) {
-                    errorMarker.error(errorMessage);
+                mustAdvance = false;
+                if (isToken(SchemaLexer.SEMICOLON)) {
                     builder.advanceLexer();
-                    return;
+                    break;
                 }
-                if (construct == Construct.STATEMENT && isToken(SchemaLexer.RBRACE)) {
-                    errorMarker.error(errorMessage);
-                    return;
+                if (isToken(SchemaLexer.RBRACE)) {
+                    // Leave a '}' for the enclosing body unless there is none.
+                    if (construct == Construct.TOP_LEVEL) {
+                        builder.advanceLexer();
+                    }
+                    break;
+                }
+                if (construct != Construct.STATEMENT && isToken(SchemaLexer.LBRACE)) {
+                    skipBraces();
+                    break;
                 }
                 builder.advanceLexer();
             }
             errorMarker.error(errorMessage);
         }
 
+        private boolean isRecoveryKeyword(Construct construct) {
+            if (construct == Construct.TOP_LEVEL && isToken(SchemaLexer.LBRACKET)) {
+                return true;
+            }
+            if (!isToken(SchemaLexer.IDENTIFIER)) {
+                return false;
+            }
+            String text = builder.getTokenText();
+            return TOP_LEVEL_KEYWORDS.contains(text) ||
+                   (construct != Construct.TOP_LEVEL && MEMBER_KEYWORDS.contains(text));
+        }
+
+        // Skips a brace-balanced block starting at a '{', or everything up to the end if the block is unterminated.
+        private void skipBraces() {
+            int depth = 0;
+            do {
+                if (isToken(SchemaLexer.LBRACE)) {
+                    ++depth;
+                } else if (isToken(SchemaLexer.RBRACE)) {
+                    --depth;
+                }
+                builder.advanceLexer();
+            } while (depth > 0 && !builder.eof());
+        }
+
         private String getTokenText() {
             return builder.getTokenText() == null ? "<EOF>" : builder.getTokenText();
         }
@@ -171,9 +236,13 @@ public class SchemaParser implements PsiParser {
             }
         }
 
+        // The text between the quotes. An unterminated string has no closing quote.
         private String getString() {
             String text = builder.getTokenText();
-            return text == null ? "" : text.substring(1, text.length() - 2);
+            if (text == null) {
+                return "";
+            }
+            return text.substring(1, text.length() > 1 && text.endsWith("\"") ? text.length() - 1 : text.length());
         }
 
         private boolean isToken(IElementType token) {
@@ -193,6 +262,45 @@ public class SchemaParser implements PsiParser {
             }
         }
 
+        private void parseLazyBody(@NotNull IElementType bodyType) {
+            PsiBuilder.Marker marker = builder.mark();
+            skipBraces();
+            marker.collapse(bodyType);
+        }
+
+        public void parseBody(@NotNull IElementType bodyType, @NotNull String keyword, @NotNull String name) {
+            PsiBuilder.Marker marker = builder.mark();
+            consumeTokenAs(null);
+            while (!builder.eof()) {
+                if (bodyType == ENUM_BODY) {
+                    parseEnumContents();
+                } else if (bodyType == TYPE_BODY) {
+                    parseTypeContents();
+                } else {
+                    parseComponentContents();
+                }
+                if (isToken(SchemaLexer.RBRACE) && builder.lookAhead(1) == null) {
+                    consumeTokenAs(null);
+                    break;
+                }
+                if (builder.eof()) {
+                    break;
+                }
+                // Skip to the start of the next member, keeping at least one token in the error.
+                PsiBuilder.Marker errorMarker = builder.mark();
+                String errorMessage = String.format("Invalid '%s' inside %s %s.", getTokenText(), keyword, name);
+                do {
+                    builder.advanceLexer();
+                } while (!builder.eof() && !isToken(SchemaLexer.IDENTIFIER) && !isToken(SchemaLexer.RBRACE) &&
+                         !isToken(SchemaLexer.SEMICOLON));
+                if (isToken(SchemaLexer.SEMICOLON)) {
+                    builder.advanceLexer();
+                }
+                errorMarker.error(errorMessage);
+            }
+            marker.done(bodyType);
+        }
+
         private void parsePackageDefinition() {
             PsiBuilder.Marker marker = builder.mark();
             consumeTokenAs(KEYWORD);
@@ -641,30 +749,16 @@ public class SchemaParser implements PsiParser {
 
                 if(isToken(SchemaLexer.IDENTIFIER)) {
                     if(builder.lookAhead(1) == SchemaLexer.LPARENTHESES) { //Initiate a new object
-                        RangedNode node = new RangedNode("Method Initializing");
-
-                        //Make all '.' in the string white
-                        int off = 0;
-                        for (int i = 0; i < builder.getTokenText().toCharArray().length; i++) {
-                            if(builder.getTokenText().toCharArray()[i] == '.') {
-                                node.addEntry(off, i, DefaultLanguageHighlighterColors.METADATA);
-                                off = i + 1;
-                            }
-                        }
-                        node.addEntry(off, builder.getTokenText().length(), DefaultLanguageHighlighterColors.METADATA);
-                        consumeTokenAs(node);
+                        consumeTokenAs(ANNOTATION_CONSTRUCTOR);
 
                         parseAnnotationFieldArray();
                         break;
                     } else { //Enum value
-                        int index = builder.getTokenText().indexOf('.');
-                        if(index == -1) {
+                        if(builder.getTokenText().indexOf('.') == -1) {
                             consumeTokenAs(TYPE_NAME); //Shouldn't happen?
                             break;
                         }
-                        consumeTokenAs(new RangedNode("Enum Reference")
-                                .addEntry(0, index, DefaultLanguageHighlighterColors.METADATA)
-                                .addEntry(index + 1, builder.getTokenText().length(), DefaultLanguageHighlighterColors.NUMBER));
+                        consumeTokenAs(ENUM_REFERENCE);
                         break;
                     }
                 }
@@ -731,14 +825,7 @@ public class SchemaParser implements PsiParser {
                 error(marker, ENUM_DEFINITION, Construct.BRACES, "Expected '{' after '%s %s'.", KEYWORD_ENUM, name);
                 return;
             }
-            consumeTokenAs(null);
-            parseEnumContents();
-            if (!isToken(SchemaLexer.RBRACE)) {
-                error(marker, ENUM_DEFINITION, Construct.BRACES,
-                      "Invalid '%s' inside %s %s.", getTokenText(), KEYWORD_ENUM, name);
-                return;
-            }
-            consumeTokenAs(null);
+            parseLazyBody(ENUM_BODY);
             marker.done(ENUM_DEFINITION);
         }
 
@@ -755,14 +842,7 @@ public class SchemaParser implements PsiParser {
                 error(marker, TYPE_DEFINITION, Construct.BRACES, "Expected '{' after '%s %s'.", KEYWORD_TYPE, name);
                 return;
             }
-            consumeTokenAs(null);
-            parseTypeContents();
-            if (!isToken(SchemaLexer.RBRACE)) {
-                error(marker, TYPE_DEFINITION, Construct.BRACES,
-                      "Invalid '%s' inside %s %s.", getTokenText(), KEYWORD_TYPE, name);
-                return;
-            }
-            consumeTokenAs(null);
+            parseLazyBody(TYPE_BODY);
             marker.done(TYPE_DEFINITION);
         }
 
@@ -781,14 +861,7 @@ public class SchemaParser implements PsiParser {
                       "Expected '{' after '%s %s'.", KEYWORD_COMPONENT, name);
                 return;
             }
-            consumeTokenAs(null);
-            parseComponentContents();
-            if (!isToken(SchemaLexer.RBRACE)) {
-                error(marker, COMPONENT_DEFINITION, Construct.BRACES,
-                      "Invalid '%s' inside %s %s.", getTokenText(), KEYWORD_COMPONENT, name);
-                return;
-            }
-            consumeTokenAs(null);
+            parseLazyBody(COMPONENT_BODY);
             marker.done(COMPONENT_DEFINITION);
         }
 
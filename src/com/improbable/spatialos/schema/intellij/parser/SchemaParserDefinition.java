@@ -1,19 +1,21 @@
 package com.improbable.spatialos.schema.intellij.parser;
 
-import com.improbable.spatialos.schema.intellij.SchemaFileType;
-import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.psi.SchemaAnnotation;
+import com.improbable.spatialos.schema.intellij.psi.SchemaDefinitionStubElementType;
+import com.improbable.spatialos.schema.intellij.psi.SchemaField;
+import com.improbable.spatialos.schema.intellij.psi.SchemaFile;
+import com.improbable.spatialos.schema.intellij.psi.SchemaTypeReferenceElement;
 import com.intellij.extapi.psi.ASTWrapperPsiElement;
-import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.lang.ASTNode;
 import com.intellij.lang.ParserDefinition;
 import com.intellij.lang.PsiParser;
 import com.intellij.lexer.Lexer;
-import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.FileViewProvider;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.IFileElementType;
 import com.intellij.psi.tree.TokenSet;
 import org.jetbrains.annotations.NotNull;
@@ -25,7 +27,7 @@ public class SchemaParserDefinition implements ParserDefinition {
 
     @Override
     public @NotNull Lexer createLexer(Project project) {
-        return SchemaLexer.SCHEMA_LEXER;
+        return new SchemaLexer();
     }
 
     @Override
@@ -55,17 +57,26 @@ public class SchemaParserDefinition implements ParserDefinition {
 
     @Override
     public @NotNull PsiElement createElement(ASTNode astNode) {
+        IElementType elementType = astNode.getElementType();
+        if (elementType instanceof SchemaDefinitionStubElementType) {
+            return ((SchemaDefinitionStubElementType) elementType).createPsi(astNode);
+        }
+        if (elementType == SchemaParser.TYPE_NAME || elementType == SchemaParser.TYPE_PARAMETER_NAME ||
+            elementType == SchemaParser.ANNOTATION_CONSTRUCTOR || elementType == SchemaParser.ENUM_REFERENCE) {
+            return new SchemaTypeReferenceElement(astNode);
+        }
+        if (elementType == SchemaParser.FIELD_DEFINITION) {
+            return new SchemaField(astNode);
+        }
+        if (elementType == SchemaParser.ANNOTATION) {
+            return new SchemaAnnotation(astNode);
+        }
         return new ASTWrapperPsiElement(astNode);
     }
 
     @Override
     public PsiFile createFile(FileViewProvider fileViewProvider) {
-        return new PsiFileBase(fileViewProvider, SchemaLanguage.SCHEMA_LANGUAGE) {
-            @Override
-            public @NotNull FileType getFileType() {
-                return SchemaFileType.SCHEMA_FILE_TYPE;
-            }
-        };
+        return new SchemaFile(fileViewProvider);
     }
 
     @Override
@@ -17,11 +17,16 @@ public class SchemaSyntaxHighlighter extends SyntaxHighlighterBase {
     private static final TextAttributesKey[] INTEGER = {DefaultLanguageHighlighterColors.NUMBER};
     private static final TextAttributesKey[] STRING = {DefaultLanguageHighlighterColors.STRING};
     private static final TextAttributesKey[] SYMBOL = {DefaultLanguageHighlighterColors.BRACES};
+    private static final TextAttributesKey[] KEYWORD = {DefaultLanguageHighlighterColors.KEYWORD};
+    private static final TextAttributesKey[] BRACKETS = {DefaultLanguageHighlighterColors.BRACKETS};
+    private static final TextAttributesKey[] PARENTHESES = {DefaultLanguageHighlighterColors.PARENTHESES};
+    private static final TextAttributesKey[] COMMA = {DefaultLanguageHighlighterColors.COMMA};
+    private static final TextAttributesKey[] SEMICOLON = {DefaultLanguageHighlighterColors.SEMICOLON};
     private static final TextAttributesKey[] NONE = {HighlighterColors.TEXT};
 
     @Override
     public @NotNull Lexer getHighlightingLexer() {
-        return SchemaLexer.SCHEMA_LEXER;
+        return new SchemaLexer(true);
     }
 
     @Override
@@ -41,6 +46,22 @@ public class SchemaSyntaxHighlighter extends SyntaxHighlighterBase {
         if (element == SchemaLexer.SYMBOL) {
             return SYMBOL;
         }
+        if (element == SchemaLexer.KEYWORD || element == SchemaLexer.BUILT_IN_TYPE) {
+            return KEYWORD;
+        }
+        if (element == SchemaLexer.LBRACE || element == SchemaLexer.RBRACE ||
+            element == SchemaLexer.LBRACKET || element == SchemaLexer.RBRACKET) {
+            return BRACKETS;
+        }
+        if (element == SchemaLexer.LPARENTHESES || element == SchemaLexer.RPARENTHESES) {
+            return PARENTHESES;
+        }
+        if (element == SchemaLexer.COMMA) {
+            return COMMA;
+        }
+        if (element == SchemaLexer.SEMICOLON) {
+            return SEMICOLON;
+        }
         return NONE;
     }
 }
@@ -0,0 +1,19 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// An annotation, "[Type(...)]", on the definition or field that follows it.
+public class SchemaAnnotation extends ASTWrapperPsiElement {
+    public SchemaAnnotation(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @Nullable SchemaTypeReferenceElement getTypeReference() {
+        ASTNode typeName = getNode().findChildByType(SchemaParser.TYPE_NAME);
+        return typeName == null ? null : (SchemaTypeReferenceElement) typeName.getPsi();
+    }
+}
@@ -0,0 +1,34 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// A command definition, "command Response name(Request);".
+public class SchemaCommand extends SchemaDefinitionElement {
+    private static final TokenSet TYPE_NAMES = TokenSet.create(SchemaParser.TYPE_NAME);
+
+    public SchemaCommand(@NotNull SchemaDefinitionStub stub, @NotNull IStubElementType nodeType) {
+        super(stub, nodeType);
+    }
+
+    public SchemaCommand(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @Nullable SchemaTypeReferenceElement getResponseType() {
+        return getTypeReference(0);
+    }
+
+    public @Nullable SchemaTypeReferenceElement getRequestType() {
+        return getTypeReference(1);
+    }
+
+    private @Nullable SchemaTypeReferenceElement getTypeReference(int index) {
+        ASTNode[] typeNames = getNode().getChildren(TYPE_NAMES);
+        return index < typeNames.length ? (SchemaTypeReferenceElement) typeNames[index].getPsi() : null;
+    }
+}
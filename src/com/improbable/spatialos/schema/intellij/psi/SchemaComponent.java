@@ -0,0 +1,61 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+
+// A component definition. Its ID and fields are read from the AST once and kept until the component changes.
+public class SchemaComponent extends SchemaDefinitionElement {
+    private volatile Optional<Integer> componentId = null;
+    private volatile List<SchemaField> fields = null;
+
+    public SchemaComponent(@NotNull SchemaDefinitionStub stub, @NotNull IStubElementType nodeType) {
+        super(stub, nodeType);
+    }
+
+    public SchemaComponent(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    // The node holding N in the "id = N;" definition of the component.
+    public @Nullable ASTNode getComponentIdNode() {
+        ASTNode body = getNode().findChildByType(SchemaParser.COMPONENT_BODY);
+        ASTNode idDefinition = body == null ? null : body.findChildByType(SchemaParser.COMPONENT_ID_DEFINITION);
+        return idDefinition == null ? null : idDefinition.findChildByType(SchemaParser.FIELD_NUMBER);
+    }
+
+    public @Nullable Integer getComponentId() {
+        SchemaDefinitionStub stub = getStub();
+        if (stub != null) {
+            return stub.getComponentId();
+        }
+        Optional<Integer> result = componentId;
+        if (result == null) {
+            ASTNode idNode = getComponentIdNode();
+            result = idNode == null ? Optional.empty() : parseInteger(idNode);
+            componentId = result;
+        }
+        return result.orElse(null);
+    }
+
+    public @NotNull List<SchemaField> getFields() {
+        List<SchemaField> result = fields;
+        if (result == null) {
+            result = findFields(SchemaParser.COMPONENT_BODY);
+            fields = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void subtreeChanged() {
+        super.subtreeChanged();
+        componentId = null;
+        fields = null;
+    }
+}
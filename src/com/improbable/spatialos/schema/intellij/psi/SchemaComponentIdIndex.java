@@ -0,0 +1,16 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.psi.stubs.IntStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+// Indexes component definitions by their component ID.
+public class SchemaComponentIdIndex extends IntStubIndexExtension<SchemaDefinitionElement> {
+    public static final StubIndexKey<Integer, SchemaDefinitionElement> KEY =
+        StubIndexKey.createIndexKey("schema.component.id");
+
+    @Override
+    public @NotNull StubIndexKey<Integer, SchemaDefinitionElement> getKey() {
+        return KEY;
+    }
+}
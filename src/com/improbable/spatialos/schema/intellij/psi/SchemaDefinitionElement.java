@@ -0,0 +1,160 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.SchemaIcons;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
+import com.intellij.lang.ASTNode;
+import com.intellij.navigation.ItemPresentation;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiNameIdentifierOwner;
+import com.intellij.psi.impl.source.tree.LeafElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+// A package, enum, type, component or command definition. These are stubbed so that they can be found by qualified
+// name through SchemaQualifiedNameIndex without parsing the files that declare them. Enums, types, components and
+// commands have their own subclasses.
+public class SchemaDefinitionElement extends StubBasedPsiElementBase<SchemaDefinitionStub>
+    implements PsiNameIdentifierOwner {
+    private static final TokenSet NAME_TYPES =
+        TokenSet.create(SchemaParser.DEFINITION_NAME, SchemaParser.PACKAGE_NAME, SchemaParser.FIELD_NAME);
+    private static final TokenSet FIELD_TYPES = TokenSet.create(SchemaParser.FIELD_DEFINITION);
+
+    public SchemaDefinitionElement(@NotNull SchemaDefinitionStub stub, @NotNull IStubElementType nodeType) {
+        super(stub, nodeType);
+    }
+
+    public SchemaDefinitionElement(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @Nullable ASTNode getNameNode() {
+        return getNode().findChildByType(NAME_TYPES);
+    }
+
+    @Override
+    public @Nullable PsiElement getNameIdentifier() {
+        ASTNode nameNode = getNameNode();
+        return nameNode == null ? null : nameNode.getPsi();
+    }
+
+    @Override
+    public @Nullable String getName() {
+        SchemaDefinitionStub stub = getStub();
+        if (stub != null) {
+            return stub.getName();
+        }
+        ASTNode nameNode = getNameNode();
+        return nameNode == null ? null : nameNode.getText();
+    }
+
+    @Override
+    public PsiElement setName(@NotNull String name) throws IncorrectOperationException {
+        // Renaming a package would also have to move the files that declare it.
+        if (getElementType() == SchemaParser.PACKAGE_DEFINITION) {
+            throw new IncorrectOperationException("Renaming schema packages is not supported.");
+        }
+        ASTNode nameNode = getNameNode();
+        ASTNode identifier = nameNode == null ? null : nameNode.getFirstChildNode();
+        if (!(identifier instanceof LeafElement)) {
+            throw new IncorrectOperationException("Cannot rename a definition without a name.");
+        }
+        ((LeafElement) identifier).replaceWithText(name);
+        return this;
+    }
+
+    // The package name for package definitions, otherwise the name prefixed by the enclosing definitions and the
+    // package of the file.
+    public @NotNull String getQualifiedName() {
+        SchemaDefinitionStub stub = getStub();
+        if (stub != null) {
+            return stub.getQualifiedName();
+        }
+        // The qualified name also depends on the package and enclosing definitions, so it is kept until the next
+        // PSI change anywhere rather than only in this definition.
+        return CachedValuesManager.getCachedValue(this, () -> CachedValueProvider.Result.create(
+            computeQualifiedName(), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private @NotNull String computeQualifiedName() {
+        String name = getName() == null ? "" : getName();
+        if (getElementType() == SchemaParser.PACKAGE_DEFINITION) {
+            return name;
+        }
+        SchemaDefinitionElement outer = PsiTreeUtil.getStubOrPsiParentOfType(this, SchemaDefinitionElement.class);
+        PsiFile file = getContainingFile();
+        String prefix = outer != null ? outer.getQualifiedName() :
+                        file instanceof SchemaFile ? ((SchemaFile) file).getPackageName() : "";
+        return prefix.isEmpty() ? name : prefix + "." + name;
+    }
+
+    // The fields directly inside the body of this definition.
+    protected @NotNull List<SchemaField> findFields(@NotNull IElementType bodyType) {
+        ASTNode body = getNode().findChildByType(bodyType);
+        if (body == null) {
+            return Collections.emptyList();
+        }
+        List<SchemaField> fields = new ArrayList<>();
+        for (ASTNode field : body.getChildren(FIELD_TYPES)) {
+            fields.add((SchemaField) field.getPsi());
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    static @NotNull Optional<Integer> parseInteger(@NotNull ASTNode node) {
+        try {
+            return Optional.of(Integer.parseInt(node.getText()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public int getTextOffset() {
+        ASTNode nameNode = getNameNode();
+        return nameNode == null ? super.getTextOffset() : nameNode.getStartOffset();
+    }
+
+    @Override
+    public ItemPresentation getPresentation() {
+        return new ItemPresentation() {
+            @Override
+            public @Nullable String getPresentableText() {
+                return getName();
+            }
+
+            @Override
+            public @Nullable String getLocationString() {
+                String name = getName();
+                String qualifiedName = getQualifiedName();
+                return name == null || qualifiedName.length() <= name.length() ?
+                       null : qualifiedName.substring(0, qualifiedName.length() - name.length() - 1);
+            }
+
+            @Override
+            public @Nullable Icon getIcon(boolean unused) {
+                return SchemaIcons.FILE_TYPE;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getElementType().toString();
+    }
+}
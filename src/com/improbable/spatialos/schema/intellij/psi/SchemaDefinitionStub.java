@@ -0,0 +1,33 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubBase;
+import com.intellij.psi.stubs.StubElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class SchemaDefinitionStub extends StubBase<SchemaDefinitionElement> {
+    private final String name;
+    private final String qualifiedName;
+    private final Integer componentId;
+
+    public SchemaDefinitionStub(@Nullable StubElement parent, @NotNull IStubElementType elementType,
+                                @Nullable String name, @NotNull String qualifiedName, @Nullable Integer componentId) {
+        super(parent, elementType);
+        this.name = name;
+        this.qualifiedName = qualifiedName;
+        this.componentId = componentId;
+    }
+
+    public @Nullable String getName() {
+        return name;
+    }
+
+    public @NotNull String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    public @Nullable Integer getComponentId() {
+        return componentId;
+    }
+}
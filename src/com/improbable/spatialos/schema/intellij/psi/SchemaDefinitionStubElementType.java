@@ -0,0 +1,98 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+public class SchemaDefinitionStubElementType extends IStubElementType<SchemaDefinitionStub, SchemaDefinitionElement> {
+    public SchemaDefinitionStubElementType(@NotNull String debugName) {
+        super(debugName, SchemaLanguage.SCHEMA_LANGUAGE);
+    }
+
+    public @NotNull SchemaDefinitionElement createPsi(@NotNull ASTNode node) {
+        if (this == SchemaParser.ENUM_DEFINITION) {
+            return new SchemaEnum(node);
+        }
+        if (this == SchemaParser.TYPE_DEFINITION) {
+            return new SchemaType(node);
+        }
+        if (this == SchemaParser.COMPONENT_DEFINITION) {
+            return new SchemaComponent(node);
+        }
+        if (this == SchemaParser.COMMAND_DEFINITION) {
+            return new SchemaCommand(node);
+        }
+        return new SchemaDefinitionElement(node);
+    }
+
+    @Override
+    public SchemaDefinitionElement createPsi(@NotNull SchemaDefinitionStub stub) {
+        if (this == SchemaParser.ENUM_DEFINITION) {
+            return new SchemaEnum(stub, this);
+        }
+        if (this == SchemaParser.TYPE_DEFINITION) {
+            return new SchemaType(stub, this);
+        }
+        if (this == SchemaParser.COMPONENT_DEFINITION) {
+            return new SchemaComponent(stub, this);
+        }
+        if (this == SchemaParser.COMMAND_DEFINITION) {
+            return new SchemaCommand(stub, this);
+        }
+        return new SchemaDefinitionElement(stub, this);
+    }
+
+    @Override
+    public @NotNull SchemaDefinitionStub createStub(@NotNull SchemaDefinitionElement psi, StubElement parentStub) {
+        Integer componentId = psi instanceof SchemaComponent ? ((SchemaComponent) psi).getComponentId() : null;
+        return new SchemaDefinitionStub(parentStub, this, psi.getName(), psi.getQualifiedName(), componentId);
+    }
+
+    @Override
+    public @NotNull String getExternalId() {
+        return "schema." + toString();
+    }
+
+    @Override
+    public void serialize(@NotNull SchemaDefinitionStub stub, @NotNull StubOutputStream dataStream)
+        throws IOException {
+        dataStream.writeName(stub.getName());
+        dataStream.writeName(stub.getQualifiedName());
+        dataStream.writeBoolean(stub.getComponentId() != null);
+        if (stub.getComponentId() != null) {
+            dataStream.writeInt(stub.getComponentId());
+        }
+    }
+
+    @Override
+    public @NotNull SchemaDefinitionStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub)
+        throws IOException {
+        String name = StringRef.toString(dataStream.readName());
+        String qualifiedName = StringRef.toString(dataStream.readName());
+        Integer componentId = dataStream.readBoolean() ? dataStream.readInt() : null;
+        return new SchemaDefinitionStub(parentStub, this, name, qualifiedName == null ? "" : qualifiedName,
+                                        componentId);
+    }
+
+    @Override
+    public void indexStub(@NotNull SchemaDefinitionStub stub, @NotNull IndexSink sink) {
+        if (stub.getName() != null) {
+            sink.occurrence(SchemaQualifiedNameIndex.KEY, stub.getQualifiedName());
+            if (this != SchemaParser.PACKAGE_DEFINITION) {
+                sink.occurrence(SchemaNameIndex.KEY, stub.getName());
+            }
+        }
+        if (stub.getComponentId() != null) {
+            sink.occurrence(SchemaComponentIdIndex.KEY, stub.getComponentId());
+        }
+    }
+}
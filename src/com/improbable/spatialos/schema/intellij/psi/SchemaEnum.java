@@ -0,0 +1,51 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// An enum definition. The names of its values are read from the AST once and kept until the enum changes.
+public class SchemaEnum extends SchemaDefinitionElement {
+    private static final TokenSet VALUE_DEFINITIONS = TokenSet.create(SchemaParser.ENUM_VALUE_DEFINITION);
+
+    private volatile List<String> valueNames = null;
+
+    public SchemaEnum(@NotNull SchemaDefinitionStub stub, @NotNull IStubElementType nodeType) {
+        super(stub, nodeType);
+    }
+
+    public SchemaEnum(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @NotNull List<String> getValueNames() {
+        List<String> result = valueNames;
+        if (result == null) {
+            result = new ArrayList<>();
+            ASTNode body = getNode().findChildByType(SchemaParser.ENUM_BODY);
+            if (body != null) {
+                for (ASTNode value : body.getChildren(VALUE_DEFINITIONS)) {
+                    ASTNode name = value.findChildByType(SchemaParser.FIELD_NAME);
+                    if (name != null) {
+                        result.add(name.getText());
+                    }
+                }
+            }
+            result = Collections.unmodifiableList(result);
+            valueNames = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void subtreeChanged() {
+        super.subtreeChanged();
+        valueNames = null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+// A field of a type or component, "Type name = N;". The name and number are kept until the field changes.
+public class SchemaField extends ASTWrapperPsiElement {
+    private volatile Optional<String> name = null;
+    private volatile Optional<Integer> fieldNumber = null;
+
+    public SchemaField(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    @Override
+    public @Nullable String getName() {
+        Optional<String> result = name;
+        if (result == null) {
+            ASTNode nameNode = getNode().findChildByType(SchemaParser.FIELD_NAME);
+            result = nameNode == null ? Optional.empty() : Optional.of(nameNode.getText());
+            name = result;
+        }
+        return result.orElse(null);
+    }
+
+    public @Nullable Integer getFieldNumber() {
+        Optional<Integer> result = fieldNumber;
+        if (result == null) {
+            ASTNode numberNode = getNode().findChildByType(SchemaParser.FIELD_NUMBER);
+            result = numberNode == null ? Optional.empty() : SchemaDefinitionElement.parseInteger(numberNode);
+            fieldNumber = result;
+        }
+        return result.orElse(null);
+    }
+
+    // The FIELD_TYPE node, holding the type name and any type parameters.
+    public @Nullable PsiElement getType() {
+        ASTNode typeNode = getNode().findChildByType(SchemaParser.FIELD_TYPE);
+        return typeNode == null ? null : typeNode.getPsi();
+    }
+
+    @Override
+    public void subtreeChanged() {
+        super.subtreeChanged();
+        name = null;
+        fieldNumber = null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.SchemaFileType;
+import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.extapi.psi.PsiFileBase;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+public class SchemaFile extends PsiFileBase {
+    public SchemaFile(@NotNull FileViewProvider viewProvider) {
+        super(viewProvider, SchemaLanguage.SCHEMA_LANGUAGE);
+    }
+
+    @Override
+    public @NotNull FileType getFileType() {
+        return SchemaFileType.SCHEMA_FILE_TYPE;
+    }
+
+    public @NotNull String getPackageName() {
+        for (SchemaDefinitionElement definition :
+             PsiTreeUtil.getStubChildrenOfTypeAsList(this, SchemaDefinitionElement.class)) {
+            if (definition.getElementType() == SchemaParser.PACKAGE_DEFINITION && definition.getName() != null) {
+                return definition.getName();
+            }
+        }
+        return "";
+    }
+}
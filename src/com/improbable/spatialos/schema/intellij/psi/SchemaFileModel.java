@@ -0,0 +1,89 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The imports and definitions of a schema file, collected in a single walk over its AST. One model is cached per file
+// until the file changes, and is shared by everything that needs to know what the file declares. Definitions are
+// qualified with the package from SchemaFile.getPackageName().
+public class SchemaFileModel {
+    private final String packageName;
+    private final List<String> importPaths = new ArrayList<>();
+    private final Map<String, SchemaDefinitionElement> definitions = new HashMap<>();
+
+    private SchemaFileModel(@NotNull SchemaFile file) {
+        packageName = file.getPackageName();
+        Map<String, SchemaDefinitionElement> relativeDefinitions = new LinkedHashMap<>();
+        collect(file.getNode(), "", relativeDefinitions);
+        for (Map.Entry<String, SchemaDefinitionElement> entry : relativeDefinitions.entrySet()) {
+            definitions.put(packageName.isEmpty() ? entry.getKey() : packageName + "." + entry.getKey(),
+                            entry.getValue());
+        }
+    }
+
+    public static @NotNull SchemaFileModel getInstance(@NotNull SchemaFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+            new SchemaFileModel(file), file));
+    }
+
+    private void collect(@NotNull ASTNode parent, @NotNull String prefix,
+                         @NotNull Map<String, SchemaDefinitionElement> relativeDefinitions) {
+        for (ASTNode node = parent.getFirstChildNode(); node != null; node = node.getTreeNext()) {
+            IElementType elementType = node.getElementType();
+            if (elementType == SchemaParser.PACKAGE_DEFINITION) {
+                // The package is read from the file's stubs, in SchemaFile.getPackageName().
+                continue;
+            }
+            if (elementType == SchemaParser.IMPORT_DEFINITION) {
+                ASTNode filename = node.findChildByType(SchemaParser.IMPORT_FILENAME);
+                if (filename != null) {
+                    importPaths.add(getImportPath(filename));
+                }
+            } else if (elementType instanceof SchemaDefinitionStubElementType) {
+                SchemaDefinitionElement definition = (SchemaDefinitionElement) node.getPsi();
+                String name = definition.getName();
+                String relativeName = name == null ? prefix : prefix.isEmpty() ? name : prefix + "." + name;
+                if (name != null) {
+                    relativeDefinitions.putIfAbsent(relativeName, definition);
+                }
+                collect(node, relativeName, relativeDefinitions);
+            } else if (node.getFirstChildNode() != null) {
+                collect(node, prefix, relativeDefinitions);
+            }
+        }
+    }
+
+    // The path of an IMPORT_FILENAME node, without the quotes.
+    public static @NotNull String getImportPath(@NotNull ASTNode filename) {
+        String text = filename.getText();
+        int end = text.length() > 1 && text.endsWith("\"") ? text.length() - 1 : text.length();
+        return text.substring(Math.min(1, end), end);
+    }
+
+    // The quoted paths of the file's imports, without the quotes.
+    public @NotNull List<String> getImportPaths() {
+        return Collections.unmodifiableList(importPaths);
+    }
+
+    public @Nullable SchemaDefinitionElement getDefinition(@NotNull String qualifiedName) {
+        return definitions.get(qualifiedName);
+    }
+
+    // Every enum, type, component and command declared in the file, including nested ones.
+    public @NotNull Collection<SchemaDefinitionElement> getDefinitions() {
+        return Collections.unmodifiableCollection(definitions.values());
+    }
+}
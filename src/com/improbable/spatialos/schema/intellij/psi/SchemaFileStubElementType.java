@@ -0,0 +1,24 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.SchemaLanguage;
+import com.intellij.psi.stubs.PsiFileStub;
+import com.intellij.psi.tree.IStubFileElementType;
+import org.jetbrains.annotations.NotNull;
+
+public class SchemaFileStubElementType extends IStubFileElementType<PsiFileStub<SchemaFile>> {
+    private static final int STUB_VERSION = 3;
+
+    public SchemaFileStubElementType() {
+        super("Schema File", SchemaLanguage.SCHEMA_LANGUAGE);
+    }
+
+    @Override
+    public int getStubVersion() {
+        return STUB_VERSION;
+    }
+
+    @Override
+    public @NotNull String getExternalId() {
+        return "schema.FILE";
+    }
+}
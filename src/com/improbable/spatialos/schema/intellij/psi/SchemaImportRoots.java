@@ -0,0 +1,368 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.SchemaFileType;
+import com.improbable.spatialos.schema.intellij.settings.SchemaProjectProperties;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.roots.ex.ProjectRootManagerEx;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves import paths against the schema paths configured in SchemaProjectProperties, falling back to the project
+// content roots when none are configured. Every schema file below a configured root is kept in a map from its path
+// relative to that root, so resolving an import is a hash lookup per root. The maps are built on a pooled thread
+// when the configured paths change, and kept up to date from VFS events after that. Until a root's map is built,
+// imports are looked up in its directory directly.
+// Configured roots that don't exist yet are kept, and picked up when a VFS event creates them. The existing roots are
+// also indexed, through SchemaLibraryRootsProvider, since they usually live outside the project.
+public class SchemaImportRoots implements BulkFileListener, ModificationTracker {
+    private final Project project;
+    private final SchemaProjectProperties properties;
+
+    private final Object lock = new Object();
+    private List<String> configuredPaths = null;
+    private List<Root> roots = Collections.emptyList();
+    private Set<VirtualFile> rootDirectories = null;
+    private Set<LocalFileSystem.WatchRequest> watchRequests = Collections.emptySet();
+    private ProgressIndicator scanIndicator = new EmptyProgressIndicator();
+    private long modificationCount = 0;
+
+    private static class Root {
+        private final String path;
+        private volatile VirtualFile directory;
+        private volatile boolean scanned = false;
+        private final Map<String, VirtualFile> files = new ConcurrentHashMap<>();
+        // The changes below the root received before its scan finished. The scan may have passed a directory before a
+        // file was created in it, or added a file that was deleted afterwards, so they are applied again in order once
+        // it has.
+        private final List<Runnable> pendingChanges = new ArrayList<>();
+
+        private Root(@NotNull String path) {
+            this.path = path;
+        }
+
+        private @Nullable VirtualFile findFile(@NotNull String importPath) {
+            if (directory == null) {
+                return null;
+            }
+            VirtualFile file = scanned ? files.get(importPath) : directory.findFileByRelativePath(importPath);
+            return file != null && file.isValid() && !file.isDirectory() ? file : null;
+        }
+    }
+
+    public SchemaImportRoots(@NotNull Project project) {
+        this.project = project;
+        properties = ServiceManager.getService(project, SchemaProjectProperties.class);
+        project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, this);
+    }
+
+    public static @NotNull SchemaImportRoots getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SchemaImportRoots.class);
+    }
+
+    public @Nullable VirtualFile findImportedFile(@NotNull String importPath) {
+        synchronized (lock) {
+            updateRoots();
+            if (configuredPaths.isEmpty()) {
+                for (VirtualFile root : ProjectRootManager.getInstance(project).getContentRoots()) {
+                    VirtualFile file = root.findFileByRelativePath(importPath);
+                    if (file != null && !file.isDirectory()) {
+                        return file;
+                    }
+                }
+                return null;
+            }
+            for (Root root : roots) {
+                VirtualFile file = root.findFile(importPath);
+                if (file != null) {
+                    return file;
+                }
+            }
+            return null;
+        }
+    }
+
+    // The configured roots that currently exist.
+    public @NotNull Set<VirtualFile> getRootDirectories() {
+        synchronized (lock) {
+            updateRoots();
+            return Collections.unmodifiableSet(rootDirectories);
+        }
+    }
+
+    @Override
+    public long getModificationCount() {
+        synchronized (lock) {
+            updateRoots();
+            return modificationCount;
+        }
+    }
+
+    @Override
+    public void before(@NotNull List<? extends VFileEvent> events) {
+        synchronized (lock) {
+            for (VFileEvent event : events) {
+                if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent || isRename(event)) {
+                    VirtualFile file = event.getFile();
+                    if (file != null) {
+                        removeFiles(file);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        synchronized (lock) {
+            for (VFileEvent event : events) {
+                VirtualFile file = null;
+                if (event instanceof VFileCopyEvent) {
+                    file = ((VFileCopyEvent) event).findCreatedFile();
+                } else if (event instanceof VFileCreateEvent || event instanceof VFileMoveEvent || isRename(event)) {
+                    file = event.getFile();
+                }
+                if (file != null && file.isValid()) {
+                    addFiles(file);
+                }
+            }
+        }
+    }
+
+    private static boolean isRename(@NotNull VFileEvent event) {
+        return event instanceof VFilePropertyChangeEvent &&
+               VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent) event).getPropertyName());
+    }
+
+    // Only compares the configured paths with the last ones seen. Finding the root directories is a VFS lookup each,
+    // and the trees below them are scanned on a pooled thread.
+    private void updateRoots() {
+        List<String> schemaPaths = properties.getState().schemaPaths;
+        if (schemaPaths.equals(configuredPaths)) {
+            return;
+        }
+        configuredPaths = new ArrayList<>(schemaPaths);
+        roots = new ArrayList<>();
+        List<String> rootPaths = new ArrayList<>();
+        for (String schemaPath : configuredPaths) {
+            String path = FileUtil.toSystemIndependentName(
+                new File(schemaPath).isAbsolute() || project.getBasePath() == null ?
+                schemaPath : project.getBasePath() + "/" + schemaPath);
+            rootPaths.add(path);
+            Root root = new Root(path);
+            root.directory = findDirectory(path);
+            roots.add(root);
+        }
+        ++modificationCount;
+        scanIndicator.cancel();
+        scanIndicator = new EmptyProgressIndicator();
+        scan(roots, rootPaths, scanIndicator);
+        updateRootDirectories();
+    }
+
+    private static @Nullable VirtualFile findDirectory(@NotNull String path) {
+        VirtualFile directory = LocalFileSystem.getInstance().findFileByPath(path);
+        return directory != null && directory.isDirectory() ? directory : null;
+    }
+
+    private void scan(@NotNull List<Root> scannedRoots, @Nullable List<String> rootPaths,
+                      @NotNull ProgressIndicator indicator) {
+        ApplicationManager.getApplication().executeOnPooledThread(() -> ProgressManager.getInstance().runProcess(() -> {
+            if (rootPaths != null) {
+                // Schema paths are usually outside the project, so ask for them to be watched to receive VFS events.
+                Set<LocalFileSystem.WatchRequest> previous;
+                synchronized (lock) {
+                    previous = watchRequests;
+                }
+                Set<LocalFileSystem.WatchRequest> requests =
+                    LocalFileSystem.getInstance().replaceWatchedRoots(previous, rootPaths, null);
+                synchronized (lock) {
+                    watchRequests = requests;
+                }
+            }
+            try {
+                for (Root root : scannedRoots) {
+                    VirtualFile directory = root.directory;
+                    if (directory != null && !root.scanned) {
+                        // VFS events are delivered in write actions, so none arrive while the root is walked. The read
+                        // action is taken before the lock, like everything else that resolves imports.
+                        ReadAction.run(() -> {
+                            addFiles(root, directory);
+                            synchronized (lock) {
+                                // The root may have been deleted before its scan started.
+                                if (root.directory == directory) {
+                                    root.pendingChanges.forEach(Runnable::run);
+                                    root.pendingChanges.clear();
+                                    root.scanned = true;
+                                }
+                            }
+                        });
+                    }
+                }
+            } catch (ProcessCanceledException e) {
+                // The configured paths changed again, and a new scan has been started for them.
+            }
+        }, indicator));
+    }
+
+    // The existing roots are indexed, so a root appearing or going away needs the indexes to be updated.
+    private void updateRootDirectories() {
+        Set<VirtualFile> directories = new LinkedHashSet<>();
+        for (Root root : roots) {
+            if (root.directory != null) {
+                directories.add(root.directory);
+            }
+        }
+        if (directories.equals(rootDirectories)) {
+            return;
+        }
+        boolean initial = rootDirectories == null;
+        rootDirectories = directories;
+        if (!initial) {
+            ApplicationManager.getApplication().invokeLater(() -> WriteAction.run(
+                () -> ProjectRootManagerEx.getInstanceEx(project).makeRootsChange(EmptyRunnable.getInstance(),
+                                                                                  false, true)),
+                project.getDisposed());
+        }
+    }
+
+    private void addFiles(@NotNull VirtualFile file) {
+        boolean changed = false;
+        List<Root> appeared = new ArrayList<>();
+        for (Root root : roots) {
+            if (root.directory == null) {
+                // A missing root, or one of the directories above it, was created.
+                if (file.isDirectory() && FileUtil.isAncestor(file.getPath(), root.path, false)) {
+                    root.directory = findDirectory(root.path);
+                    if (root.directory != null) {
+                        root.files.clear();
+                        root.pendingChanges.clear();
+                        appeared.add(root);
+                        changed = true;
+                    }
+                }
+            } else if (VfsUtilCore.isAncestor(root.directory, file, false)) {
+                if (root.scanned) {
+                    changed |= addFiles(root, file);
+                } else {
+                    root.pendingChanges.add(() -> {
+                        if (file.isValid()) {
+                            addFiles(root, file);
+                        }
+                    });
+                    changed |= isSchemaFileOrDirectory(file);
+                }
+            }
+        }
+        if (changed) {
+            ++modificationCount;
+        }
+        if (!appeared.isEmpty()) {
+            scan(appeared, null, scanIndicator);
+            updateRootDirectories();
+        }
+    }
+
+    private static boolean addFiles(@NotNull Root root, @NotNull VirtualFile file) {
+        boolean[] changed = {false};
+        VfsUtilCore.visitChildrenRecursively(file, new VirtualFileVisitor<Void>() {
+            @Override
+            public boolean visitFile(@NotNull VirtualFile child) {
+                ProgressManager.checkCanceled();
+                if (!child.isDirectory() && isSchemaFile(child)) {
+                    String relativePath = VfsUtilCore.getRelativePath(child, root.directory, '/');
+                    if (relativePath != null && !child.equals(root.files.put(relativePath, child))) {
+                        changed[0] = true;
+                    }
+                }
+                return true;
+            }
+        });
+        return changed[0];
+    }
+
+    private void removeFiles(@NotNull VirtualFile file) {
+        boolean changed = false;
+        boolean disappeared = false;
+        for (Root root : roots) {
+            if (root.directory == null) {
+                continue;
+            }
+            if (file.equals(root.directory) || VfsUtilCore.isAncestor(file, root.directory, false)) {
+                // A configured root itself went away. It is kept so that it is picked up again if it comes back.
+                root.directory = null;
+                root.scanned = false;
+                root.files.clear();
+                root.pendingChanges.clear();
+                changed = true;
+                disappeared = true;
+                continue;
+            }
+            String relativePath = VfsUtilCore.getRelativePath(file, root.directory, '/');
+            if (relativePath == null) {
+                continue;
+            }
+            boolean directory = file.isDirectory();
+            if (root.scanned) {
+                changed |= removeFiles(root, relativePath, directory);
+            } else {
+                root.pendingChanges.add(() -> removeFiles(root, relativePath, directory));
+                changed |= isSchemaFileOrDirectory(file);
+            }
+        }
+        if (changed) {
+            ++modificationCount;
+        }
+        if (disappeared) {
+            updateRootDirectories();
+        }
+    }
+
+    private static boolean removeFiles(@NotNull Root root, @NotNull String relativePath, boolean directory) {
+        if (directory) {
+            String prefix = relativePath + "/";
+            return root.files.keySet().removeIf(path -> path.startsWith(prefix));
+        }
+        return root.files.remove(relativePath) != null;
+    }
+
+    private static boolean isSchemaFile(@NotNull VirtualFile file) {
+        return SchemaFileType.SCHEMA_FILE_TYPE.getDefaultExtension().equals(file.getExtension());
+    }
+
+    private static boolean isSchemaFileOrDirectory(@NotNull VirtualFile file) {
+        return file.isDirectory() || isSchemaFile(file);
+    }
+}
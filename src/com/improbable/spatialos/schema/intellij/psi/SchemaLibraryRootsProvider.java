@@ -0,0 +1,23 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.AdditionalLibraryRootsProvider;
+import com.intellij.openapi.roots.SyntheticLibrary;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+// Adds the configured schema paths, which usually live outside the project, as a library. This gets them indexed, so
+// the types they declare can be found through SchemaQualifiedNameIndex and SchemaNameIndex, and puts them in the
+// "all" scope used by go to class and completion.
+public class SchemaLibraryRootsProvider extends AdditionalLibraryRootsProvider {
+    @Override
+    public @NotNull Collection<SyntheticLibrary> getAdditionalProjectLibraries(@NotNull Project project) {
+        Set<VirtualFile> roots = SchemaImportRoots.getInstance(project).getRootDirectories();
+        return roots.isEmpty() ?
+               Collections.emptyList() : Collections.singletonList(SyntheticLibrary.newImmutableLibrary(roots));
+    }
+}
@@ -0,0 +1,16 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+// Indexes enum, type, component and command definitions by their unqualified name.
+public class SchemaNameIndex extends StringStubIndexExtension<SchemaDefinitionElement> {
+    public static final StubIndexKey<String, SchemaDefinitionElement> KEY =
+        StubIndexKey.createIndexKey("schema.definition.name");
+
+    @Override
+    public @NotNull StubIndexKey<String, SchemaDefinitionElement> getKey() {
+        return KEY;
+    }
+}
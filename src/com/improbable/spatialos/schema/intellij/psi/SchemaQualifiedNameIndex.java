@@ -0,0 +1,26 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+public class SchemaQualifiedNameIndex extends StringStubIndexExtension<SchemaDefinitionElement> {
+    public static final StubIndexKey<String, SchemaDefinitionElement> KEY =
+        StubIndexKey.createIndexKey("schema.definition.qualifiedName");
+
+    @Override
+    public @NotNull StubIndexKey<String, SchemaDefinitionElement> getKey() {
+        return KEY;
+    }
+
+    public static @NotNull Collection<SchemaDefinitionElement> find(@NotNull String qualifiedName,
+                                                                    @NotNull Project project,
+                                                                    @NotNull GlobalSearchScope scope) {
+        return StubIndex.getElements(KEY, qualifiedName, project, scope, SchemaDefinitionElement.class);
+    }
+}
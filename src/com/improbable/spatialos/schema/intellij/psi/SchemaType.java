@@ -0,0 +1,36 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+// A type definition. Its fields are read from the AST once and kept until the type changes.
+public class SchemaType extends SchemaDefinitionElement {
+    private volatile List<SchemaField> fields = null;
+
+    public SchemaType(@NotNull SchemaDefinitionStub stub, @NotNull IStubElementType nodeType) {
+        super(stub, nodeType);
+    }
+
+    public SchemaType(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @NotNull List<SchemaField> getFields() {
+        List<SchemaField> result = fields;
+        if (result == null) {
+            result = findFields(SchemaParser.TYPE_BODY);
+            fields = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void subtreeChanged() {
+        super.subtreeChanged();
+        fields = null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReferenceBase;
+import com.intellij.psi.impl.source.tree.LeafElement;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class SchemaTypeReference extends PsiReferenceBase<SchemaTypeReferenceElement> {
+    // A qualifier may be part of a package name rather than a definition, so it is allowed not to resolve.
+    public SchemaTypeReference(@NotNull SchemaTypeReferenceElement element, @NotNull TextRange range,
+                               boolean qualifier) {
+        super(element, range, qualifier);
+    }
+
+    // The range covers one part of a qualified name, and the definition it refers to is named by the text up to the
+    // end of that part.
+    @Override
+    public @Nullable PsiElement resolve() {
+        PsiFile file = myElement.getContainingFile();
+        if (!(file instanceof SchemaFile)) {
+            return null;
+        }
+        String name = myElement.getText().substring(0, getRangeInElement().getEndOffset());
+        return SchemaTypeResolver.getInstance((SchemaFile) file).resolve(name, myElement);
+    }
+
+    @Override
+    public PsiElement handleElementRename(@NotNull String newElementName) throws IncorrectOperationException {
+        ASTNode identifier = myElement.getNode().getFirstChildNode();
+        if (!(identifier instanceof LeafElement)) {
+            throw new IncorrectOperationException("Cannot rename a reference without a name.");
+        }
+        ((LeafElement) identifier).replaceWithText(getRangeInElement().replace(identifier.getText(), newElementName));
+        return myElement;
+    }
+
+    @Override
+    public @NotNull Object[] getVariants() {
+        return ArrayUtil.EMPTY_OBJECT_ARRAY;
+    }
+}
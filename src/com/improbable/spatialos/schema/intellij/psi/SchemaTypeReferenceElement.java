@@ -0,0 +1,55 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaLexer;
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A type name used in a field, command or annotation, which refers to a type defined in this or an imported file. In
+// an enum reference such as "Color.RED" in an annotation, only the part before the last '.' names the type.
+// Every part of a qualified name has its own reference, to the definition named by the text up to the end of that part,
+// so that renaming or finding usages of "Outer" also sees the "Outer" in "pkg.Outer.Inner".
+public class SchemaTypeReferenceElement extends ASTWrapperPsiElement {
+    public SchemaTypeReferenceElement(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    // The reference for the whole name, which is the one that has to resolve.
+    @Override
+    public @Nullable PsiReference getReference() {
+        PsiReference[] references = getReferences();
+        return references.length == 0 ? null : references[references.length - 1];
+    }
+
+    @Override
+    public @NotNull PsiReference[] getReferences() {
+        ASTNode child = getNode().getFirstChildNode();
+        if (child == null || child.getElementType() != SchemaLexer.IDENTIFIER) {
+            return PsiReference.EMPTY_ARRAY;
+        }
+        CharSequence text = child.getChars();
+        int end = getNode().getElementType() == SchemaParser.ENUM_REFERENCE ?
+                  StringUtil.lastIndexOf(text, '.', 0, text.length()) : text.length();
+        List<PsiReference> references = new ArrayList<>();
+        int start = 0;
+        while (start < end) {
+            int partEnd = StringUtil.indexOf(text, '.', start, end);
+            if (partEnd < 0) {
+                partEnd = end;
+            }
+            if (partEnd > start) {
+                references.add(new SchemaTypeReference(this, new TextRange(start, partEnd), partEnd < end));
+            }
+            start = partEnd + 1;
+        }
+        return references.toArray(PsiReference.EMPTY_ARRAY);
+    }
+}
@@ -0,0 +1,108 @@
+package com.improbable.spatialos.schema.intellij.psi;
+
+import com.improbable.spatialos.schema.intellij.parser.SchemaParser;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Resolves type names used in a schema file. A name is looked up relative to each enclosing definition, then
+// relative to the file's package, and finally as a fully qualified name, in the file itself (through its
+// SchemaFileModel) and the files it imports.
+// One resolver is cached per file until the next PSI change, and it remembers every qualified name it has looked up,
+// so resolving all references in a file costs one index lookup per distinct name.
+public class SchemaTypeResolver {
+    private final Project project;
+    private final SchemaFileModel model;
+    private final String packageName;
+    private final GlobalSearchScope scope;
+    private final boolean importsResolved;
+    private final ConcurrentMap<String, Optional<SchemaDefinitionElement>> definitions = new ConcurrentHashMap<>();
+
+    private SchemaTypeResolver(@NotNull SchemaFile file) {
+        project = file.getProject();
+        model = SchemaFileModel.getInstance(file);
+        packageName = file.getPackageName();
+        List<VirtualFile> files = new ArrayList<>();
+        VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+        if (virtualFile != null) {
+            files.add(virtualFile);
+        }
+        boolean allFound = true;
+        for (String importPath : model.getImportPaths()) {
+            VirtualFile importedFile = SchemaImportRoots.getInstance(project).findImportedFile(importPath);
+            if (importedFile != null) {
+                files.add(importedFile);
+            } else {
+                allFound = false;
+            }
+        }
+        importsResolved = allFound;
+        scope = GlobalSearchScope.filesScope(project, files);
+    }
+
+    public static @NotNull SchemaTypeResolver getInstance(@NotNull SchemaFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+            new SchemaTypeResolver(file), PsiModificationTracker.MODIFICATION_COUNT,
+            SchemaImportRoots.getInstance(file.getProject())));
+    }
+
+    // The file itself and the files it imports, which are the only files its type names can refer to.
+    public @NotNull GlobalSearchScope getScope() {
+        return scope;
+    }
+
+    // Whether every import of the file was found. When one wasn't, a name that doesn't resolve may well be declared in
+    // the missing file, so it shouldn't be reported on its own.
+    public boolean areImportsResolved() {
+        return importsResolved;
+    }
+
+    public @Nullable SchemaDefinitionElement resolve(@NotNull String name, @NotNull PsiElement context) {
+        SchemaDefinitionElement outer = PsiTreeUtil.getParentOfType(context, SchemaDefinitionElement.class);
+        while (outer != null) {
+            SchemaDefinitionElement definition = findDefinition(outer.getQualifiedName() + "." + name);
+            if (definition != null) {
+                return definition;
+            }
+            outer = PsiTreeUtil.getParentOfType(outer, SchemaDefinitionElement.class);
+        }
+        if (!packageName.isEmpty()) {
+            SchemaDefinitionElement definition = findDefinition(packageName + "." + name);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        return findDefinition(name);
+    }
+
+    private @Nullable SchemaDefinitionElement findDefinition(@NotNull String qualifiedName) {
+        Optional<SchemaDefinitionElement> definition = definitions.get(qualifiedName);
+        if (definition == null) {
+            // Definitions in this file are known without going through the index.
+            definition = Optional.ofNullable(model.getDefinition(qualifiedName));
+            if (!definition.isPresent()) {
+                for (SchemaDefinitionElement candidate : SchemaQualifiedNameIndex.find(qualifiedName, project, scope)) {
+                    if (candidate.getElementType() != SchemaParser.PACKAGE_DEFINITION) {
+                        definition = Optional.of(candidate);
+                        break;
+                    }
+                }
+            }
+            definitions.putIfAbsent(qualifiedName, definition);
+        }
+        return definition.orElse(null);
+    }
+}
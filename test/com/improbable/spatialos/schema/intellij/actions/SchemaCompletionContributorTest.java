@@ -0,0 +1,51 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+import java.util.List;
+
+public class SchemaCompletionContributorTest extends LightPlatformCodeInsightFixtureTestCase {
+    private static final String DEFINITIONS =
+        "package example;\n\ntype Foo {}\n\ntype Forward {}\n\nenum Unit {\n  METERS = 0;\n}\n\n";
+
+    public void testAnnotationType() {
+        assertSameElements(complete("[Fo<caret>(1)]\ntype Bar {}\n"), "Foo", "Forward");
+    }
+
+    public void testAnnotationTypeWithoutPrefix() {
+        List<String> lookups = complete("[<caret>(1)]\ntype Bar {}\n");
+        assertContainsElements(lookups, "Foo", "Forward", "Unit");
+        assertDoesntContain(lookups, "int32", "EntityId", "map");
+    }
+
+    public void testAnnotationValue() {
+        List<String> lookups = complete("[Foo(<caret>)]\ntype Bar {}\n");
+        assertContainsElements(lookups, "Unit");
+        assertDoesntContain(lookups, "int32", "EntityId", "map");
+    }
+
+    public void testCommandType() {
+        List<String> lookups = complete("component Bar {\n  id = 1;\n  command <caret> run(Foo);\n}\n");
+        assertContainsElements(lookups, "Foo", "Forward");
+        assertDoesntContain(lookups, "int32", "EntityId", "map");
+    }
+
+    public void testFieldType() {
+        List<String> lookups = complete("type Bar {\n  <caret> value = 1;\n}\n");
+        assertContainsElements(lookups, "Foo", "Unit", "int32", "EntityId", "map", "list", "option");
+    }
+
+    public void testFieldTypeParameter() {
+        List<String> lookups = complete("type Bar {\n  list<<caret>> values = 1;\n}\n");
+        assertContainsElements(lookups, "Foo", "int32", "EntityId");
+        assertDoesntContain(lookups, "map", "list", "option");
+    }
+
+    private List<String> complete(String text) {
+        myFixture.configureByText("Completion.schema", DEFINITIONS + text);
+        myFixture.completeBasic();
+        List<String> lookups = myFixture.getLookupElementStrings();
+        assertNotNull(lookups);
+        return lookups;
+    }
+}
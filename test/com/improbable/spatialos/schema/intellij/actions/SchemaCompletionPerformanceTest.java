@@ -0,0 +1,45 @@
+package com.improbable.spatialos.schema.intellij.actions;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Completes a type name in a generated project of about 10k declarations within 50 ms. The budget is scaled by
+// PlatformTestUtil to the speed of the machine running the test.
+public class SchemaCompletionPerformanceTest extends LightPlatformCodeInsightFixtureTestCase {
+    private final List<String> paths = new ArrayList<>();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        // Every generated file declares an enum, three types and two components.
+        SchemaCorpusGenerator.Settings settings = new SchemaCorpusGenerator.Settings();
+        settings.packages = 20;
+        settings.filesPerPackage = 84;
+        for (Map.Entry<String, String> file : new SchemaCorpusGenerator(settings).generateProject().entrySet()) {
+            myFixture.addFileToProject(file.getKey(), file.getValue());
+            paths.add(file.getKey());
+        }
+    }
+
+    public void testTypeNameCompletion() {
+        StringBuilder text = new StringBuilder("package improbable.corpus.package0;\n\n");
+        for (String path : paths.subList(paths.size() - 3, paths.size())) {
+            text.append("import \"").append(path).append("\";\n");
+        }
+        text.append("\ntype Completion {\n  Data<caret> value = 1;\n}\n");
+        myFixture.configureByText("Completion.schema", text.toString());
+        // The first completion indexes the project.
+        myFixture.completeBasic();
+        assertNotNull(myFixture.getLookupElementStrings());
+        PlatformTestUtil.startPerformanceTest("completion", 50, () -> {
+            myFixture.completeBasic();
+            assertNotNull(myFixture.getLookupElementStrings());
+        }).setup(() -> LookupManager.getInstance(getProject()).hideActiveLookup()).assertTiming();
+    }
+}
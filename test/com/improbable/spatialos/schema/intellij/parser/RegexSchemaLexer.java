@@ -0,0 +1,145 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.lexer.LexerPosition;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The regex-based lexer that SchemaLexer replaced, kept as the reference SchemaLexer is compared with in
+// SchemaLexerDifferentialTest. It emits SchemaLexer's tokens.
+class RegexSchemaLexer extends Lexer {
+    private static final String IDENTIFIER_PATTERN_STR = "[_a-zA-Z][_a-zA-Z0-9]*(\\.([_a-zA-Z][_a-zA-Z0-9]*)?)*";
+    private static final Pattern IDENTIFIER_PATTERN =
+        Pattern.compile("\\.(" + IDENTIFIER_PATTERN_STR + ")?|" + IDENTIFIER_PATTERN_STR);
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("//[^\n]*|/\\*([^*]|\\*([^/]|$))*(\\*/|$)");
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("[0-9]+");
+    private static final Pattern STRING_PATTERN = Pattern.compile("\"[^\n\"]*\"?");
+    private static final Pattern LBRACE_PATTERN = Pattern.compile("\\{");
+    private static final Pattern RBRACE_PATTERN = Pattern.compile("}");
+    private static final Pattern LPARENTHESES_PATTERN = Pattern.compile("\\(");
+    private static final Pattern RPARENTHESES_PATTERN = Pattern.compile("\\)");
+    private static final Pattern LBRACKET_PATTERN = Pattern.compile("\\[");
+    private static final Pattern RBRACKET_PATTERN = Pattern.compile("]");
+    private static final Pattern LANGLE_PATTERN = Pattern.compile("<");
+    private static final Pattern RANGLE_PATTERN = Pattern.compile(">");
+    private static final Pattern EQUALS_PATTERN = Pattern.compile("=");
+    private static final Pattern COMMA_PATTERN = Pattern.compile(",");
+    private static final Pattern COLON_PATTERN = Pattern.compile(":");
+    private static final Pattern SEMICOLON_PATTERN = Pattern.compile(";");
+
+    private CharSequence buffer = null;
+    private int endOffset = 0;
+
+    private IElementType currentToken = null;
+    private int currentTokenStart = 0;
+    private int currentTokenEnd = 0;
+
+    private void computeCurrentToken() {
+        if (currentTokenStart >= endOffset) {
+            currentTokenEnd = endOffset;
+            currentToken = null;
+            return;
+        }
+        if (!checkCurrentToken(WHITESPACE_PATTERN, TokenType.WHITE_SPACE) &&
+            !checkCurrentToken(COMMENT_PATTERN, SchemaLexer.COMMENT) &&
+            !checkCurrentToken(IDENTIFIER_PATTERN, SchemaLexer.IDENTIFIER) &&
+            !checkCurrentToken(INTEGER_PATTERN, SchemaLexer.INTEGER) &&
+            !checkCurrentToken(STRING_PATTERN, SchemaLexer.STRING) &&
+            !checkCurrentToken(LBRACE_PATTERN, SchemaLexer.LBRACE) &&
+            !checkCurrentToken(RBRACE_PATTERN, SchemaLexer.RBRACE) &&
+            !checkCurrentToken(LPARENTHESES_PATTERN, SchemaLexer.LPARENTHESES) &&
+            !checkCurrentToken(RPARENTHESES_PATTERN, SchemaLexer.RPARENTHESES) &&
+            !checkCurrentToken(LANGLE_PATTERN, SchemaLexer.LANGLE) &&
+            !checkCurrentToken(RANGLE_PATTERN, SchemaLexer.RANGLE) &&
+            !checkCurrentToken(EQUALS_PATTERN, SchemaLexer.EQUALS) &&
+            !checkCurrentToken(COMMA_PATTERN, SchemaLexer.COMMA) &&
+            !checkCurrentToken(SEMICOLON_PATTERN, SchemaLexer.SEMICOLON) &&
+            !checkCurrentToken(LBRACKET_PATTERN, SchemaLexer.LBRACKET) &&
+            !checkCurrentToken(RBRACKET_PATTERN, SchemaLexer.RBRACKET) &&
+            !checkCurrentToken(COLON_PATTERN, SchemaLexer.COLON)) {
+            currentTokenEnd = 1 + currentTokenStart;
+            currentToken = TokenType.BAD_CHARACTER;
+        }
+    }
+
+    private boolean checkCurrentToken(Pattern pattern, IElementType token) {
+        Matcher matcher = pattern.matcher(buffer);
+        matcher.region(currentTokenStart, endOffset);
+        if (matcher.lookingAt()) {
+            currentTokenEnd = matcher.end();
+            currentToken = token;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+        this.buffer = buffer;
+        this.endOffset = endOffset;
+        currentTokenStart = startOffset;
+        computeCurrentToken();
+    }
+
+    @Override
+    public int getState() {
+        return 0;
+    }
+
+    @Override
+    public IElementType getTokenType() {
+        return currentToken;
+    }
+
+    @Override
+    public int getTokenStart() {
+        return currentTokenStart;
+    }
+
+    @Override
+    public int getTokenEnd() {
+        return currentTokenEnd;
+    }
+
+    @Override
+    public void advance() {
+        currentTokenStart = currentTokenEnd;
+        computeCurrentToken();
+    }
+
+    @Override
+    public @NotNull LexerPosition getCurrentPosition() {
+        return new LexerPosition() {
+            @Override
+            public int getOffset() {
+                return currentTokenStart;
+            }
+
+            @Override
+            public int getState() {
+                return 0;
+            }
+        };
+    }
+
+    @Override
+    public void restore(@NotNull LexerPosition lexerPosition) {
+        currentTokenStart = lexerPosition.getOffset();
+    }
+
+    @Override
+    public @NotNull CharSequence getBufferSequence() {
+        return buffer;
+    }
+
+    @Override
+    public int getBufferEnd() {
+        return Math.min(endOffset, buffer.length());
+    }
+}
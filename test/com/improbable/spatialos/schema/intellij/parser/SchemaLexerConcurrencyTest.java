@@ -0,0 +1,76 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.lexer.Lexer;
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Lexes hundreds of generated files on many threads at once, with lexers from the parser definition and the syntax
+// highlighter as the platform would get them, and checks every token stream against lexing the file on one thread.
+public class SchemaLexerConcurrencyTest extends UsefulTestCase {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 4;
+
+    public void testParserLexers() throws Exception {
+        checkConcurrentLexing(() -> new SchemaParserDefinition().createLexer(null));
+    }
+
+    public void testHighlightingLexers() throws Exception {
+        checkConcurrentLexing(SchemaSyntaxHighlighter.SCHEMA_SYNTAX_HIGHLIGHTER::getHighlightingLexer);
+    }
+
+    private static void checkConcurrentLexing(Supplier<Lexer> lexers) throws Exception {
+        SchemaCorpusGenerator.Settings settings = new SchemaCorpusGenerator.Settings();
+        settings.packages = 10;
+        settings.filesPerPackage = 30;
+        List<String> files = new ArrayList<>(new SchemaCorpusGenerator(settings).generateProject().values());
+        List<List<String>> expected = new ArrayList<>();
+        for (String file : files) {
+            expected.add(lex(lexers.get(), file));
+        }
+
+        // Every file is lexed once per round, in a different order each round so that threads lex different files at
+        // the same time.
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; ++round) {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < files.size(); ++i) {
+                order.add(i);
+            }
+            Collections.shuffle(order, new Random(round));
+            for (int i : order) {
+                tasks.add(() -> {
+                    assertEquals("file " + i, expected.get(i), lex(lexers.get(), files.get(i)));
+                    return null;
+                });
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> lex(Lexer lexer, String text) {
+        List<String> tokens = new ArrayList<>();
+        lexer.start(text);
+        for (; lexer.getTokenType() != null; lexer.advance()) {
+            tokens.add(lexer.getTokenType() + " " + lexer.getTokenStart() + " " + lexer.getTokenEnd() + " " +
+                       lexer.getState());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,96 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Checks that SchemaLexer produces exactly the tokens of RegexSchemaLexer, the lexer it replaced, on the parser test
+// data, generated schema and random text. The highlighting lexer is checked too, once its keyword and built-in type
+// tokens are mapped back to identifiers and the lines of each block comment are joined again.
+public class SchemaLexerDifferentialTest extends UsefulTestCase {
+    // Characters that start, end or continue every kind of token, and some that are in none.
+    private static final String ALPHABET = "abzAZ_09 \t\n\r\u000B\f./*\"{}()[]<>=,:;#-\u00e9";
+
+    public void testParserTestData() throws IOException {
+        int files = 0;
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(Paths.get("testData/parser"), "*.schema")) {
+            for (Path path : paths) {
+                checkSameTokens(path.toString(), new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                ++files;
+            }
+        }
+        assertTrue(files > 0);
+    }
+
+    public void testGeneratedSchema() {
+        SchemaCorpusGenerator generator = new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings());
+        for (Map.Entry<String, String> file : generator.generateProject().entrySet()) {
+            checkSameTokens(file.getKey(), file.getValue());
+        }
+        checkSameTokens("generated file", generator.generateFile(1 << 18));
+    }
+
+    public void testRandomText() {
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; ++i) {
+            char[] chars = new char[random.nextInt(64)];
+            for (int j = 0; j < chars.length; ++j) {
+                chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            String text = new String(chars);
+            checkSameTokens(text, text);
+            // Lexing a range of the text must not look at anything outside it.
+            int start = random.nextInt(text.length() + 1);
+            int end = start + random.nextInt(text.length() - start + 1);
+            checkSameTokens(text, text, start, end);
+        }
+    }
+
+    private static void checkSameTokens(String name, String text) {
+        checkSameTokens(name, text, 0, text.length());
+    }
+
+    private static void checkSameTokens(String name, String text, int start, int end) {
+        String message = StringUtil.escapeStringCharacters(name) + " [" + start + ", " + end + ")";
+        List<String> expected = lex(new RegexSchemaLexer(), text, start, end);
+        assertEquals(message, expected, lex(new SchemaLexer(), text, start, end));
+        assertEquals(message, expected, lex(new SchemaLexer(true), text, start, end));
+    }
+
+    private static List<String> lex(Lexer lexer, String text, int start, int end) {
+        List<String> tokens = new ArrayList<>();
+        int commentStart = 0;
+        lexer.start(text, start, end, SchemaLexer.STATE_DEFAULT);
+        for (; lexer.getTokenType() != null; lexer.advance()) {
+            IElementType tokenType = lexer.getTokenType();
+            if (lexer.getState() == SchemaLexer.STATE_BLOCK_COMMENT) {
+                // The next line of the block comment that the previous token started.
+                tokens.set(tokens.size() - 1, format(tokenType, commentStart, lexer.getTokenEnd()));
+                continue;
+            }
+            if (tokenType == SchemaLexer.KEYWORD || tokenType == SchemaLexer.BUILT_IN_TYPE) {
+                tokenType = SchemaLexer.IDENTIFIER;
+            }
+            commentStart = lexer.getTokenStart();
+            tokens.add(format(tokenType, lexer.getTokenStart(), lexer.getTokenEnd()));
+        }
+        return tokens;
+    }
+
+    private static String format(IElementType tokenType, int start, int end) {
+        return tokenType + " [" + start + ", " + end + ")";
+    }
+}
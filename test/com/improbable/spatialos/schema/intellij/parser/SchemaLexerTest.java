@@ -0,0 +1,145 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.testFramework.LexerTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchemaLexerTest extends LexerTestCase {
+    @Override
+    protected Lexer createLexer() {
+        return new SchemaLexer();
+    }
+
+    // LexerTestCase requires a test data directory, but every test here has its expected tokens inline.
+    @Override
+    protected String getDirPath() {
+        throw new UnsupportedOperationException("SchemaLexerTest has no test data files");
+    }
+
+    public void testDefinitions() {
+        doTest("package improbable.example;\nimport \"a/b.schema\";\ntype Foo { map<uint32, list<Foo>> items = 1; }",
+               "Identifier ('package')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('improbable.example')\n" +
+               "; (';')\n" +
+               "WHITE_SPACE ('\\n')\n" +
+               "Identifier ('import')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "String ('\"a/b.schema\"')\n" +
+               "; (';')\n" +
+               "WHITE_SPACE ('\\n')\n" +
+               "Identifier ('type')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('Foo')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "{ ('{')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('map')\n" +
+               "< ('<')\n" +
+               "Identifier ('uint32')\n" +
+               ", (',')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('list')\n" +
+               "< ('<')\n" +
+               "Identifier ('Foo')\n" +
+               "> ('>')\n" +
+               "> ('>')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('items')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "= ('=')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Integer ('1')\n" +
+               "; (';')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "} ('}')\n");
+    }
+
+    public void testDotsDigitsAndUnterminatedTokens() {
+        doTest(".a ..b a..b a.1 .5 42abc \"open\n# /* unterminated",
+               "Identifier ('.a')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('.')\n" +
+               "Identifier ('.b')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('a..b')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('a.')\n" +
+               "Integer ('1')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('.')\n" +
+               "Integer ('5')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Integer ('42')\n" +
+               "Identifier ('abc')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "String ('\"open')\n" +
+               "WHITE_SPACE ('\\n')\n" +
+               "BAD_CHARACTER ('#')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Comment ('/* unterminated')\n");
+    }
+
+    public void testHighlightingKeywordsAndBuiltInTypes() {
+        doTest("type typeId option options string stringValue EntityAcl Entity",
+               "Keyword ('type')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('typeId')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Keyword ('option')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('options')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Built-in Type ('string')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('stringValue')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('EntityAcl')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Built-in Type ('Entity')\n",
+               new SchemaLexer(true));
+    }
+
+    public void testHighlightingBlockCommentLines() {
+        String text = "/* one\ntwo\nthree */ x";
+        doTest(text,
+               "Comment ('/* one\\n')\n" +
+               "Comment ('two\\n')\n" +
+               "Comment ('three */')\n" +
+               "WHITE_SPACE (' ')\n" +
+               "Identifier ('x')\n",
+               new SchemaLexer(true));
+        checkRestartable(text);
+        checkRestartable("a /* b\n* c **/\n/* d\n\n*/ e /* unterminated\nf");
+    }
+
+    // The editor highlighter restarts the lexer at a token with the state reported there, so doing that at any
+    // token must give the same tokens as lexing from the start of the text.
+    private static void checkRestartable(String text) {
+        SchemaLexer lexer = new SchemaLexer(true);
+        List<String> tokens = lex(lexer, text, 0, SchemaLexer.STATE_DEFAULT);
+        List<int[]> positions = new ArrayList<>();
+        lexer.start(text);
+        while (lexer.getTokenType() != null) {
+            positions.add(new int[]{lexer.getTokenStart(), lexer.getState()});
+            lexer.advance();
+        }
+        for (int i = 0; i < positions.size(); ++i) {
+            assertEquals("restarted at " + positions.get(i)[0], tokens.subList(i, tokens.size()),
+                         lex(new SchemaLexer(true), text, positions.get(i)[0], positions.get(i)[1]));
+        }
+    }
+
+    private static List<String> lex(Lexer lexer, String text, int start, int state) {
+        List<String> tokens = new ArrayList<>();
+        lexer.start(text, start, text.length(), state);
+        while (lexer.getTokenType() != null) {
+            tokens.add(lexer.getTokenType() + " " + lexer.getTokenStart() + " " + lexer.getTokenEnd() + " " +
+                       lexer.getState());
+            lexer.advance();
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,82 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.psi.PsiErrorElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.ParsingTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Parses testData/parser/<Name>.schema and compares the tree with testData/parser/<Name>.txt.
+public class SchemaParserTest extends ParsingTestCase {
+    public SchemaParserTest() {
+        super("parser", "schema", new SchemaParserDefinition());
+    }
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData";
+    }
+
+    // Whitespace is left out of the expected trees, so they only change when the structure does.
+    @Override
+    protected boolean skipSpaces() {
+        return true;
+    }
+
+    public void testPackageAndImports() {
+        doTest(true);
+    }
+
+    public void testTypes() {
+        doTest(true);
+    }
+
+    public void testComponent() {
+        doTest(true);
+    }
+
+    public void testAnnotations() {
+        doTest(true);
+    }
+
+    public void testErrorRecovery() {
+        doTest(true);
+    }
+
+    // The benchmarks and stress tests rely on the generated schema being valid.
+    public void testGeneratedCorpus() {
+        for (Map.Entry<String, String> entry :
+             new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateProject().entrySet()) {
+            PsiFile file = createPsiFile("Generated", entry.getValue());
+            ensureParsed(file);
+            assertNull(entry.getKey(), PsiTreeUtil.findChildOfType(file, PsiErrorElement.class));
+        }
+    }
+
+    // Element types are registered for good, and there can only be 32767 of them, so parsing must only ever use the
+    // ones created when the parser is loaded. Every construct is parsed once, including the error recovery paths, and
+    // parsing all of it a second time must not register any more.
+    public void testParsingAllocatesNoElementTypes() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String name : new String[]{"PackageAndImports", "Types", "Component", "Annotations", "ErrorRecovery"}) {
+            texts.add(loadFile(name + ".schema"));
+        }
+        texts.add(new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateFile(1 << 16));
+        parseAll(texts);
+        short allocated = IElementType.getAllocatedTypesCount();
+        parseAll(texts);
+        assertEquals(allocated, IElementType.getAllocatedTypesCount());
+    }
+
+    private void parseAll(List<String> texts) {
+        for (String text : texts) {
+            ensureParsed(createPsiFile("Parsed", text));
+        }
+    }
+}
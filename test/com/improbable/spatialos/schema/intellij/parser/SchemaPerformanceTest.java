@@ -0,0 +1,53 @@
+package com.improbable.spatialos.schema.intellij.parser;
+
+import com.improbable.spatialos.schema.intellij.corpus.SchemaCorpusGenerator;
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.ParsingTestCase;
+import com.intellij.testFramework.PlatformTestUtil;
+
+// Lexes and parses a file of about a megabyte within a time budget. The budgets are scaled by PlatformTestUtil to the
+// speed of the machine running the test.
+public class SchemaPerformanceTest extends ParsingTestCase {
+    private static final int SIZE = 1 << 20;
+
+    private String text;
+
+    public SchemaPerformanceTest() {
+        super("parser", "schema", new SchemaParserDefinition());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        text = new SchemaCorpusGenerator(new SchemaCorpusGenerator.Settings()).generateFile(SIZE);
+    }
+
+    public void testLexing() {
+        PlatformTestUtil.startPerformanceTest("lexing", 200, () -> {
+            Lexer lexer = new SchemaLexer();
+            lexer.start(text);
+            while (lexer.getTokenType() != null) {
+                lexer.advance();
+            }
+        }).assertTiming();
+    }
+
+    public void testHighlightingLexing() {
+        PlatformTestUtil.startPerformanceTest("highlighting lexing", 300, () -> {
+            Lexer lexer = new SchemaLexer(true);
+            lexer.start(text);
+            while (lexer.getTokenType() != null) {
+                lexer.advance();
+            }
+        }).assertTiming();
+    }
+
+    // Definition bodies are parsed lazily, so every node is visited to parse the whole file.
+    public void testParsing() {
+        PlatformTestUtil.startPerformanceTest("parsing", 1500, () -> {
+            PsiFile file = createPsiFile("Large", text);
+            ensureParsed(file);
+        }).assertTiming();
+    }
+}